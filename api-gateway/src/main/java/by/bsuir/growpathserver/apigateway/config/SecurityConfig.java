@@ -1,15 +1,37 @@
 package by.bsuir.growpathserver.apigateway.config;
 
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.ReactiveJwtAuthenticationConverterAdapter;
 import org.springframework.security.web.server.SecurityWebFilterChain;
 
+import by.bsuir.growpathserver.apigateway.security.CachingReactiveJwtDecoder;
+import by.bsuir.growpathserver.common.security.GrowPathJwtAuthenticationConverter;
+import by.bsuir.growpathserver.common.security.JwkSetCache;
+import by.bsuir.growpathserver.common.security.JwkSetConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+
 @Configuration
 @EnableWebFluxSecurity
+@Import(JwkSetConfig.class)
 public class SecurityConfig {
 
+    @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri}")
+    private String issuerUri;
+
+    @Value("${security.jwt.cache.maximum-size:10000}")
+    private long jwtCacheMaximumSize;
+
+    @Value("${security.jwt.cache.max-ttl:5m}")
+    private Duration jwtCacheMaxTtl;
+
     @Bean
     public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
         http
@@ -20,9 +42,18 @@ public class SecurityConfig {
                         .pathMatchers("/api/auth/user", "/api/auth/validate").authenticated()
                         .anyExchange().authenticated()
                 )
-                .oauth2ResourceServer(oauth2 -> oauth2.jwt(jwt -> {
-                }));
+                .oauth2ResourceServer(oauth2 -> oauth2.jwt(jwt -> jwt
+                        .jwtAuthenticationConverter(new ReactiveJwtAuthenticationConverterAdapter(
+                                new GrowPathJwtAuthenticationConverter()))));
 
         return http.build();
     }
+
+    @Bean
+    public ReactiveJwtDecoder jwtDecoder(JwkSetCache jwkSetCache, MeterRegistry meterRegistry) {
+        CachingReactiveJwtDecoder decoder = new CachingReactiveJwtDecoder(jwkSetCache.reactiveJwtDecoder(issuerUri),
+                                                                          jwtCacheMaximumSize, jwtCacheMaxTtl);
+        decoder.bindTo(meterRegistry, "gateway.jwt");
+        return decoder;
+    }
 }
@@ -1,14 +1,73 @@
 package by.bsuir.growpathserver.apigateway.config;
 
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import io.netty.channel.ChannelOption;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
 @Configuration
 public class WebClientConfig {
 
+    @Value("${keycloak.http-client.max-connections:100}")
+    private int maxConnections;
+
+    @Value("${keycloak.http-client.pending-acquire-max-count:500}")
+    private int pendingAcquireMaxCount;
+
+    @Value("${keycloak.http-client.pending-acquire-timeout:5s}")
+    private Duration pendingAcquireTimeout;
+
+    @Value("${keycloak.http-client.max-idle-time:30s}")
+    private Duration maxIdleTime;
+
+    @Value("${keycloak.http-client.max-life-time:5m}")
+    private Duration maxLifeTime;
+
+    @Value("${keycloak.http-client.evict-in-background:30s}")
+    private Duration evictInBackground;
+
+    @Value("${keycloak.http-client.connect-timeout:2s}")
+    private Duration connectTimeout;
+
+    @Value("${keycloak.http-client.response-timeout:5s}")
+    private Duration responseTimeout;
+
     @Bean
     public WebClient.Builder webClientBuilder() {
         return WebClient.builder();
     }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider keycloakConnectionProvider() {
+        return ConnectionProvider.builder("keycloak")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                .maxLifeTime(maxLifeTime)
+                .evictInBackground(evictInBackground)
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public WebClient keycloakWebClient(WebClient.Builder webClientBuilder,
+                                       ConnectionProvider keycloakConnectionProvider) {
+        HttpClient httpClient = HttpClient.create(keycloakConnectionProvider)
+                .keepAlive(true)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .responseTimeout(responseTimeout);
+
+        return webClientBuilder.clone()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
 }
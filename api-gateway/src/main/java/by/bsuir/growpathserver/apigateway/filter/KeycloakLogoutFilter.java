@@ -1,37 +1,32 @@
 package by.bsuir.growpathserver.apigateway.filter;
 
-import java.nio.charset.StandardCharsets;
-import java.util.Map;
-
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
-import org.springframework.core.io.buffer.DataBuffer;
-import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
-import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
-import org.springframework.web.server.ServerWebExchange;
-
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.web.server.ResponseStatusException;
 
 import by.bsuir.growpathserver.apigateway.service.AuthService;
+import by.bsuir.growpathserver.apigateway.web.GatewayResponseWriter;
+import by.bsuir.growpathserver.apigateway.web.JsonRequestBodyReader;
+import by.bsuir.growpathserver.common.dto.model.LogoutRequest;
 import lombok.extern.slf4j.Slf4j;
-import reactor.core.publisher.Mono;
 
 @Slf4j
 @Component
 public class KeycloakLogoutFilter extends AbstractGatewayFilterFactory<KeycloakLogoutFilter.Config> {
 
     private final AuthService authService;
-    private final ObjectMapper objectMapper;
+    private final JsonRequestBodyReader requestBodyReader;
+    private final GatewayResponseWriter responseWriter;
 
-    public KeycloakLogoutFilter(AuthService authService, ObjectMapper objectMapper) {
+    public KeycloakLogoutFilter(AuthService authService, JsonRequestBodyReader requestBodyReader,
+                                GatewayResponseWriter responseWriter) {
         super(Config.class);
         this.authService = authService;
-        this.objectMapper = objectMapper;
+        this.requestBodyReader = requestBodyReader;
+        this.responseWriter = responseWriter;
     }
 
     @Override
@@ -42,79 +37,34 @@ public class KeycloakLogoutFilter extends AbstractGatewayFilterFactory<KeycloakL
     @Override
     public GatewayFilter apply(Config config) {
         return (exchange, chain) -> {
-            return DataBufferUtils.join(exchange.getRequest().getBody())
-                    .flatMap(dataBuffer -> {
-                        byte[] bytes = new byte[dataBuffer.readableByteCount()];
-                        dataBuffer.read(bytes);
-                        DataBufferUtils.release(dataBuffer);
-
-                        String body = new String(bytes, StandardCharsets.UTF_8);
-
-                        try {
-                            @SuppressWarnings("unchecked")
-                            Map<String, String> logoutRequest = objectMapper.readValue(body, Map.class);
-                            String refreshToken = logoutRequest.get("refreshToken");
+            return requestBodyReader.read(exchange, LogoutRequest.class)
+                    .flatMap(logoutRequest -> {
+                        String refreshToken = logoutRequest.getRefreshToken();
 
-                            if (!StringUtils.hasText(refreshToken)) {
-                                return handleError(exchange, HttpStatus.BAD_REQUEST, "Refresh token is required");
-                            }
-
-                            return authService.logout(refreshToken)
-                                    .then(handleSuccess(exchange, "Successfully logged out"))
-                                    .onErrorResume(ex -> {
-                                        log.error("Logout failed", ex);
-                                        return handleError(exchange, HttpStatus.BAD_REQUEST,
-                                                           "Logout failed: " + ex.getMessage());
-                                    });
-                        }
-                        catch (JsonProcessingException e) {
-                            log.error("Error parsing logout request", e);
-                            return handleError(exchange, HttpStatus.BAD_REQUEST, "Invalid request body");
+                        if (!StringUtils.hasText(refreshToken)) {
+                            return responseWriter.writeError(exchange, HttpStatus.BAD_REQUEST,
+                                                             "Refresh token is required");
                         }
+
+                        return authService.logout(refreshToken)
+                                .then(responseWriter.writeMessage(exchange, "Successfully logged out"))
+                                .onErrorResume(ex -> {
+                                    log.error("Logout failed", ex);
+                                    return responseWriter.writeError(exchange, HttpStatus.BAD_REQUEST,
+                                                                     "Logout failed", ex);
+                                });
                     })
-                    .switchIfEmpty(handleError(exchange, HttpStatus.BAD_REQUEST, "Request body is required"));
+                    .switchIfEmpty(responseWriter.writeError(exchange, HttpStatus.BAD_REQUEST,
+                                                             "Request body is required"))
+                    .onErrorResume(ResponseStatusException.class, ex -> {
+                        log.error("Error reading logout request", ex);
+                        return responseWriter.writeError(exchange, HttpStatus.valueOf(ex.getStatusCode().value()),
+                                                         ex.getReason());
+                    });
         };
     }
 
-    private Mono<Void> handleSuccess(ServerWebExchange exchange, String message) {
-        ServerHttpResponse response = exchange.getResponse();
-        response.setStatusCode(HttpStatus.OK);
-        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
-
-        try {
-            Map<String, String> successResponse = Map.of("message", message);
-            String json = objectMapper.writeValueAsString(successResponse);
-            DataBuffer buffer = response.bufferFactory().wrap(json.getBytes(StandardCharsets.UTF_8));
-            return response.writeWith(Mono.just(buffer));
-        }
-        catch (JsonProcessingException e) {
-            DataBuffer buffer = response.bufferFactory().wrap(message.getBytes(StandardCharsets.UTF_8));
-            return response.writeWith(Mono.just(buffer));
-        }
-    }
-
-    private Mono<Void> handleError(ServerWebExchange exchange, HttpStatus status, String message) {
-        ServerHttpResponse response = exchange.getResponse();
-        response.setStatusCode(status);
-        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
-
-        try {
-            Map<String, String> errorResponse = Map.of(
-                    "error", status.getReasonPhrase(),
-                    "message", message
-            );
-            String json = objectMapper.writeValueAsString(errorResponse);
-            DataBuffer buffer = response.bufferFactory().wrap(json.getBytes(StandardCharsets.UTF_8));
-            return response.writeWith(Mono.just(buffer));
-        }
-        catch (JsonProcessingException e) {
-            DataBuffer buffer = response.bufferFactory().wrap(message.getBytes(StandardCharsets.UTF_8));
-            return response.writeWith(Mono.just(buffer));
-        }
-    }
-
     public static class Config {
 
     }
 }
-
@@ -1,37 +1,33 @@
 package by.bsuir.growpathserver.apigateway.filter;
 
-import java.nio.charset.StandardCharsets;
-import java.util.Map;
-
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
-import org.springframework.core.io.buffer.DataBuffer;
-import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
-import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
-import org.springframework.web.server.ServerWebExchange;
-
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.web.server.ResponseStatusException;
 
-import by.bsuir.growpathserver.apigateway.service.AuthService;
+import by.bsuir.growpathserver.apigateway.service.RefreshTokenCoalescer;
+import by.bsuir.growpathserver.apigateway.web.GatewayResponseWriter;
+import by.bsuir.growpathserver.apigateway.web.JsonRequestBodyReader;
+import by.bsuir.growpathserver.common.dto.model.RefreshTokenRequest;
 import lombok.extern.slf4j.Slf4j;
-import reactor.core.publisher.Mono;
 
 @Slf4j
 @Component
 public class KeycloakRefreshFilter extends AbstractGatewayFilterFactory<KeycloakRefreshFilter.Config> {
 
-    private final AuthService authService;
-    private final ObjectMapper objectMapper;
+    private final RefreshTokenCoalescer refreshTokenCoalescer;
+    private final JsonRequestBodyReader requestBodyReader;
+    private final GatewayResponseWriter responseWriter;
 
-    public KeycloakRefreshFilter(AuthService authService, ObjectMapper objectMapper) {
+    public KeycloakRefreshFilter(RefreshTokenCoalescer refreshTokenCoalescer,
+                                 JsonRequestBodyReader requestBodyReader,
+                                 GatewayResponseWriter responseWriter) {
         super(Config.class);
-        this.authService = authService;
-        this.objectMapper = objectMapper;
+        this.refreshTokenCoalescer = refreshTokenCoalescer;
+        this.requestBodyReader = requestBodyReader;
+        this.responseWriter = responseWriter;
     }
 
     @Override
@@ -42,75 +38,33 @@ public class KeycloakRefreshFilter extends AbstractGatewayFilterFactory<Keycloak
     @Override
     public GatewayFilter apply(Config config) {
         return (exchange, chain) -> {
-            return DataBufferUtils.join(exchange.getRequest().getBody())
-                    .flatMap(dataBuffer -> {
-                        byte[] bytes = new byte[dataBuffer.readableByteCount()];
-                        dataBuffer.read(bytes);
-                        DataBufferUtils.release(dataBuffer);
-
-                        String body = new String(bytes, StandardCharsets.UTF_8);
-
-                        try {
-                            @SuppressWarnings("unchecked")
-                            Map<String, String> refreshRequest = objectMapper.readValue(body, Map.class);
-                            String refreshToken = refreshRequest.get("refreshToken");
-
-                            if (!StringUtils.hasText(refreshToken)) {
-                                return handleError(exchange, HttpStatus.BAD_REQUEST, "Refresh token is required");
-                            }
-
-                            return authService.refreshToken(refreshToken)
-                                    .flatMap(tokenResponse -> {
-                                        ServerHttpResponse response = exchange.getResponse();
-                                        response.setStatusCode(HttpStatus.OK);
-                                        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            return requestBodyReader.read(exchange, RefreshTokenRequest.class)
+                    .flatMap(refreshRequest -> {
+                        String refreshToken = refreshRequest.getRefreshToken();
 
-                                        try {
-                                            String json = objectMapper.writeValueAsString(tokenResponse);
-                                            DataBuffer buffer = response.bufferFactory()
-                                                    .wrap(json.getBytes(StandardCharsets.UTF_8));
-                                            return response.writeWith(Mono.just(buffer));
-                                        }
-                                        catch (JsonProcessingException e) {
-                                            return handleError(exchange, HttpStatus.INTERNAL_SERVER_ERROR,
-                                                               "Error serializing response");
-                                        }
-                                    })
-                                    .onErrorResume(ex -> {
-                                        log.error("Token refresh failed", ex);
-                                        return handleError(exchange, HttpStatus.UNAUTHORIZED,
-                                                           "Token refresh failed: " + ex.getMessage());
-                                    });
-                        }
-                        catch (JsonProcessingException e) {
-                            log.error("Error parsing refresh request", e);
-                            return handleError(exchange, HttpStatus.BAD_REQUEST, "Invalid request body");
+                        if (!StringUtils.hasText(refreshToken)) {
+                            return responseWriter.writeError(exchange, HttpStatus.BAD_REQUEST,
+                                                             "Refresh token is required");
                         }
+
+                        return refreshTokenCoalescer.refreshToken(refreshToken)
+                                .flatMap(tokenResponse -> responseWriter.writeJson(exchange, tokenResponse))
+                                .onErrorResume(ex -> {
+                                    log.error("Token refresh failed", ex);
+                                    return responseWriter.writeError(exchange, HttpStatus.UNAUTHORIZED,
+                                                                     "Token refresh failed", ex);
+                                });
                     })
-                    .switchIfEmpty(handleError(exchange, HttpStatus.BAD_REQUEST, "Request body is required"));
+                    .switchIfEmpty(responseWriter.writeError(exchange, HttpStatus.BAD_REQUEST,
+                                                             "Request body is required"))
+                    .onErrorResume(ResponseStatusException.class, ex -> {
+                        log.error("Error reading refresh request", ex);
+                        return responseWriter.writeError(exchange, HttpStatus.valueOf(ex.getStatusCode().value()),
+                                                         ex.getReason());
+                    });
         };
     }
 
-    private Mono<Void> handleError(ServerWebExchange exchange, HttpStatus status, String message) {
-        ServerHttpResponse response = exchange.getResponse();
-        response.setStatusCode(status);
-        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
-
-        try {
-            Map<String, String> errorResponse = Map.of(
-                    "error", status.getReasonPhrase(),
-                    "message", message
-            );
-            String json = objectMapper.writeValueAsString(errorResponse);
-            DataBuffer buffer = response.bufferFactory().wrap(json.getBytes(StandardCharsets.UTF_8));
-            return response.writeWith(Mono.just(buffer));
-        }
-        catch (JsonProcessingException e) {
-            DataBuffer buffer = response.bufferFactory().wrap(message.getBytes(StandardCharsets.UTF_8));
-            return response.writeWith(Mono.just(buffer));
-        }
-    }
-
     public static class Config {
     }
 }
@@ -1,37 +1,27 @@
 package by.bsuir.growpathserver.apigateway.filter;
 
-import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
 
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
-import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
-import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.stereotype.Component;
-import org.springframework.web.server.ServerWebExchange;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-
-import by.bsuir.growpathserver.common.util.JwtUtils;
+import by.bsuir.growpathserver.apigateway.web.GatewayResponseWriter;
+import by.bsuir.growpathserver.common.security.GrowPathAuthenticationToken;
 import lombok.extern.slf4j.Slf4j;
-import reactor.core.publisher.Mono;
 
 @Slf4j
 @Component
 public class KeycloakUserInfoFilter extends AbstractGatewayFilterFactory<KeycloakUserInfoFilter.Config> {
 
-    private final ObjectMapper objectMapper;
+    private final GatewayResponseWriter responseWriter;
 
-    public KeycloakUserInfoFilter(ObjectMapper objectMapper) {
+    public KeycloakUserInfoFilter(GatewayResponseWriter responseWriter) {
         super(Config.class);
-        this.objectMapper = objectMapper;
+        this.responseWriter = responseWriter;
     }
 
     @Override
@@ -44,59 +34,24 @@ public class KeycloakUserInfoFilter extends AbstractGatewayFilterFactory<Keycloa
         return (exchange, chain) -> {
             return exchange.getPrincipal()
                     .cast(Authentication.class)
-                    .filter(auth -> auth instanceof JwtAuthenticationToken)
-                    .cast(JwtAuthenticationToken.class)
-                    .map(JwtAuthenticationToken::getToken)
-                    .flatMap(jwt -> {
-                        ServerHttpResponse response = exchange.getResponse();
-                        response.setStatusCode(HttpStatus.OK);
-                        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
-
+                    .filter(auth -> auth instanceof GrowPathAuthenticationToken)
+                    .cast(GrowPathAuthenticationToken.class)
+                    .map(GrowPathAuthenticationToken::getPrincipal)
+                    .flatMap(principal -> {
                         Map<String, Object> userInfo = new HashMap<>();
-                        userInfo.put("username", JwtUtils.getUsername(jwt));
-                        userInfo.put("email", JwtUtils.getEmail(jwt));
-                        userInfo.put("firstName", JwtUtils.getFirstName(jwt));
-                        userInfo.put("lastName", JwtUtils.getLastName(jwt));
-                        userInfo.put("roles", JwtUtils.extractRoles(jwt).stream()
-                                .map(GrantedAuthority::getAuthority)
-                                .toList());
-                        userInfo.put("sub", jwt.getSubject());
-
-                        try {
-                            String json = objectMapper.writeValueAsString(userInfo);
-                            DataBuffer buffer = response.bufferFactory().wrap(json.getBytes(StandardCharsets.UTF_8));
-                            return response.writeWith(Mono.just(buffer));
-                        }
-                        catch (JsonProcessingException e) {
-                            log.error("Error serializing user info", e);
-                            return handleError(exchange, HttpStatus.INTERNAL_SERVER_ERROR,
-                                               "Error serializing response");
-                        }
+                        userInfo.put("username", principal.getUsername());
+                        userInfo.put("email", principal.getEmail());
+                        userInfo.put("firstName", principal.getFirstName());
+                        userInfo.put("lastName", principal.getLastName());
+                        userInfo.put("roles", principal.getAuthorityNames());
+                        userInfo.put("sub", principal.getSubject());
+
+                        return responseWriter.writeJson(exchange, userInfo);
                     })
-                    .switchIfEmpty(handleError(exchange, HttpStatus.UNAUTHORIZED, "Not authenticated"));
+                    .switchIfEmpty(responseWriter.writeError(exchange, HttpStatus.UNAUTHORIZED, "Not authenticated"));
         };
     }
 
-    private Mono<Void> handleError(ServerWebExchange exchange, HttpStatus status, String message) {
-        ServerHttpResponse response = exchange.getResponse();
-        response.setStatusCode(status);
-        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
-
-        try {
-            Map<String, String> errorResponse = Map.of(
-                    "error", status.getReasonPhrase(),
-                    "message", message
-            );
-            String json = objectMapper.writeValueAsString(errorResponse);
-            DataBuffer buffer = response.bufferFactory().wrap(json.getBytes(StandardCharsets.UTF_8));
-            return response.writeWith(Mono.just(buffer));
-        }
-        catch (JsonProcessingException e) {
-            DataBuffer buffer = response.bufferFactory().wrap(message.getBytes(StandardCharsets.UTF_8));
-            return response.writeWith(Mono.just(buffer));
-        }
-    }
-
     public static class Config {
         // Configuration properties if needed
     }
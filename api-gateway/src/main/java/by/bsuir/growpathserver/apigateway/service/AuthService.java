@@ -3,12 +3,17 @@ package by.bsuir.growpathserver.apigateway.service;
 import by.bsuir.growpathserver.common.dto.model.TokenResponse;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ClientHttpRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClientRequest;
+
+import java.time.Duration;
+import java.util.function.Consumer;
 
 @Service
 public class AuthService {
@@ -18,13 +23,19 @@ public class AuthService {
     private final String realm;
     private final String clientId;
     private final String clientSecret;
+    private final Duration loginTimeout;
+    private final Duration refreshTimeout;
+    private final Duration logoutTimeout;
 
     public AuthService(
-            WebClient.Builder webClientBuilder,
+            WebClient keycloakWebClient,
             @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri}") String issuerUri,
             @Value("${keycloak.client.id:api-gateway}") String clientId,
-            @Value("${keycloak.client.secret:api-gateway-secret}") String clientSecret) {
-        this.webClient = webClientBuilder.build();
+            @Value("${keycloak.client.secret:api-gateway-secret}") String clientSecret,
+            @Value("${keycloak.http-client.timeouts.login:5s}") Duration loginTimeout,
+            @Value("${keycloak.http-client.timeouts.refresh:3s}") Duration refreshTimeout,
+            @Value("${keycloak.http-client.timeouts.logout:3s}") Duration logoutTimeout) {
+        this.webClient = keycloakWebClient;
 
         if (issuerUri.contains("/realms/")) {
             int realmsIndex = issuerUri.indexOf("/realms/");
@@ -36,6 +47,9 @@ public class AuthService {
         }
         this.clientId = clientId;
         this.clientSecret = clientSecret;
+        this.loginTimeout = loginTimeout;
+        this.refreshTimeout = refreshTimeout;
+        this.logoutTimeout = logoutTimeout;
     }
 
     public Mono<TokenResponse> login(String username, String password) {
@@ -51,6 +65,7 @@ public class AuthService {
 
         return webClient.post()
                 .uri(tokenUrl)
+                .httpRequest(responseTimeout(loginTimeout))
                 .contentType(MediaType.APPLICATION_FORM_URLENCODED)
                 .body(BodyInserters.fromFormData(formData))
                 .retrieve()
@@ -70,6 +85,7 @@ public class AuthService {
 
         return webClient.post()
                 .uri(tokenUrl)
+                .httpRequest(responseTimeout(refreshTimeout))
                 .contentType(MediaType.APPLICATION_FORM_URLENCODED)
                 .body(BodyInserters.fromFormData(formData))
                 .retrieve()
@@ -88,6 +104,7 @@ public class AuthService {
 
         return webClient.post()
                 .uri(logoutUrl)
+                .httpRequest(responseTimeout(logoutTimeout))
                 .contentType(MediaType.APPLICATION_FORM_URLENCODED)
                 .body(BodyInserters.fromFormData(formData))
                 .retrieve()
@@ -99,4 +116,11 @@ public class AuthService {
         return String.format("%s/realms/%s/protocol/openid-connect/auth?client_id=%s&redirect_uri=%s&response_type=code&scope=openid profile email roles",
                 keycloakUrl, realm, clientId, redirectUri);
     }
+
+    private static Consumer<ClientHttpRequest> responseTimeout(Duration timeout) {
+        return request -> {
+            HttpClientRequest nativeRequest = request.getNativeRequest();
+            nativeRequest.responseTimeout(timeout);
+        };
+    }
 }
@@ -0,0 +1,47 @@
+package by.bsuir.growpathserver.apigateway.service;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import by.bsuir.growpathserver.common.dto.model.TokenResponse;
+import by.bsuir.growpathserver.common.util.HashUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import reactor.core.publisher.Mono;
+
+/**
+ * Collapses concurrent refresh grants for the same refresh token into a single Keycloak call.
+ * Callers arriving while the call is in flight share its result, and the result stays
+ * available for a short time for late callers. Failed calls are not cached.
+ */
+@Service
+public class RefreshTokenCoalescer {
+
+    private final AuthService authService;
+    private final AsyncCache<String, TokenResponse> refreshResults;
+
+    public RefreshTokenCoalescer(
+            AuthService authService,
+            MeterRegistry meterRegistry,
+            @Value("${keycloak.refresh.result-ttl:10s}") Duration resultTtl,
+            @Value("${keycloak.refresh.maximum-size:10000}") long maximumSize) {
+        this.authService = authService;
+        this.refreshResults = Caffeine.newBuilder()
+                .expireAfterWrite(resultTtl)
+                .maximumSize(maximumSize)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, refreshResults.synchronous(), "gateway.refresh");
+    }
+
+    public Mono<TokenResponse> refreshToken(String refreshToken) {
+        String key = HashUtils.sha256(refreshToken);
+        return Mono.fromFuture(() -> refreshResults.get(key, (hash, executor) ->
+                authService.refreshToken(refreshToken).toFuture()), true);
+    }
+}
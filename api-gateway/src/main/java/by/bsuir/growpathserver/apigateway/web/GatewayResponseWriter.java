@@ -0,0 +1,140 @@
+package by.bsuir.growpathserver.apigateway.web;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Writes JSON responses for the gateway's own endpoints. Responses with a fixed message are
+ * encoded once and reused; everything else is generated directly into a buffer from the
+ * response's buffer factory.
+ */
+@Slf4j
+@Component
+public class GatewayResponseWriter {
+
+    private static final int INITIAL_BUFFER_SIZE = 512;
+    private static final int MAX_STATIC_RESPONSES = 256;
+
+    private final ObjectMapper objectMapper;
+    private final Map<StaticResponseKey, byte[]> staticResponses = new ConcurrentHashMap<>();
+
+    public GatewayResponseWriter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public Mono<Void> writeError(ServerWebExchange exchange, HttpStatus status, String message) {
+        return writeStatic(exchange, status, new StaticResponseKey(status, message, true));
+    }
+
+    public Mono<Void> writeError(ServerWebExchange exchange, HttpStatus status, String message, Throwable cause) {
+        String fullMessage = message + ": " + cause.getMessage();
+        return write(exchange, status, generator -> writeErrorBody(generator, status, fullMessage));
+    }
+
+    public Mono<Void> writeMessage(ServerWebExchange exchange, String message) {
+        return writeStatic(exchange, HttpStatus.OK, new StaticResponseKey(HttpStatus.OK, message, false));
+    }
+
+    public Mono<Void> writeJson(ServerWebExchange exchange, Object body) {
+        return write(exchange, HttpStatus.OK, generator -> objectMapper.writeValue(generator, body));
+    }
+
+    private Mono<Void> writeStatic(ServerWebExchange exchange, HttpStatus status, StaticResponseKey key) {
+        return Mono.defer(() -> {
+            byte[] bytes = staticResponses.get(key);
+            if (bytes == null) {
+                bytes = encode(key);
+                if (staticResponses.size() < MAX_STATIC_RESPONSES) {
+                    staticResponses.putIfAbsent(key, bytes);
+                }
+            }
+
+            ServerHttpResponse response = prepare(exchange, status);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(bytes)));
+        });
+    }
+
+    private Mono<Void> write(ServerWebExchange exchange, HttpStatus status, BodyWriter bodyWriter) {
+        return Mono.defer(() -> {
+            ServerHttpResponse response = prepare(exchange, status);
+            DataBuffer buffer = response.bufferFactory().allocateBuffer(INITIAL_BUFFER_SIZE);
+            try {
+                writeTo(buffer.asOutputStream(), bodyWriter);
+            }
+            catch (IOException e) {
+                DataBufferUtils.release(buffer);
+                log.error("Error serializing response", e);
+                return writeError(exchange, HttpStatus.INTERNAL_SERVER_ERROR, "Error serializing response");
+            }
+            return response.writeWith(Mono.just(buffer));
+        });
+    }
+
+    private ServerHttpResponse prepare(ServerWebExchange exchange, HttpStatus status) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return response;
+    }
+
+    private byte[] encode(StaticResponseKey key) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(INITIAL_BUFFER_SIZE);
+        try {
+            writeTo(outputStream, generator -> {
+                if (key.error()) {
+                    writeErrorBody(generator, key.status(), key.message());
+                }
+                else {
+                    generator.writeStartObject();
+                    generator.writeStringField("message", key.message());
+                    generator.writeEndObject();
+                }
+            });
+        }
+        catch (IOException e) {
+            throw new IllegalStateException("Failed to encode static response", e);
+        }
+        return outputStream.toByteArray();
+    }
+
+    private void writeTo(OutputStream outputStream, BodyWriter bodyWriter) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream, JsonEncoding.UTF8)) {
+            bodyWriter.write(generator);
+        }
+    }
+
+    private static void writeErrorBody(JsonGenerator generator, HttpStatus status, String message)
+            throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("error", status.getReasonPhrase());
+        generator.writeStringField("message", message);
+        generator.writeEndObject();
+    }
+
+    @FunctionalInterface
+    private interface BodyWriter {
+
+        void write(JsonGenerator generator) throws IOException;
+    }
+
+    private record StaticResponseKey(HttpStatus status, String message, boolean error) {
+    }
+}
@@ -0,0 +1,70 @@
+package by.bsuir.growpathserver.apigateway.web;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Reads a JSON request body straight from the joined {@code DataBuffer} into a typed object,
+ * without intermediate {@code byte[]} or {@code String} copies. Bodies larger than the configured
+ * limit are rejected with 413 before they are fully buffered.
+ */
+@Component
+public class JsonRequestBodyReader {
+
+    private final ObjectMapper objectMapper;
+    private final int maxBodySize;
+    private final Map<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+
+    public JsonRequestBodyReader(
+            ObjectMapper objectMapper,
+            @Value("${application.rest.authentication.max-body-size:16KB}") DataSize maxBodySize) {
+        this.objectMapper = objectMapper;
+        this.maxBodySize = Math.toIntExact(maxBodySize.toBytes());
+    }
+
+    public <T> Mono<T> read(ServerWebExchange exchange, Class<T> type) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (request.getHeaders().getContentLength() > maxBodySize) {
+            return Mono.error(payloadTooLarge());
+        }
+
+        ObjectReader reader = readers.computeIfAbsent(type, key -> objectMapper.readerFor(key)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES));
+
+        return DataBufferUtils.join(request.getBody(), maxBodySize)
+                .onErrorMap(DataBufferLimitException.class, ex -> payloadTooLarge())
+                .handle((dataBuffer, sink) -> {
+                    try (InputStream inputStream = dataBuffer.asInputStream(true)) {
+                        T value = reader.readValue(inputStream);
+                        if (value != null) {
+                            sink.next(value);
+                        }
+                    }
+                    catch (IOException e) {
+                        sink.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid request body", e));
+                    }
+                });
+    }
+
+    private static ResponseStatusException payloadTooLarge() {
+        return new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "Request body is too large");
+    }
+}
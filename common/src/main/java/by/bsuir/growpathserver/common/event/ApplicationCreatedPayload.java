@@ -0,0 +1,13 @@
+package by.bsuir.growpathserver.common.event;
+
+/**
+ * @param locale IETF language tag of the recipient, such as {@code en}; {@code null} selects
+ *               the default locale of the notification templates
+ */
+public record ApplicationCreatedPayload(String applicationId, String email, String locale) implements EventPayload {
+
+    @Override
+    public EventType eventType() {
+        return EventType.APPLICATION_CREATED;
+    }
+}
@@ -0,0 +1,35 @@
+package by.bsuir.growpathserver.common.event;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventMessage {
+
+    @JsonProperty("eventId")
+    private String eventId;
+
+    @JsonProperty("eventType")
+    private EventType eventType;
+
+    @JsonProperty("timestamp")
+    private Instant timestamp;
+
+    @JsonProperty("userId")
+    private String userId;
+
+    @JsonProperty("payload")
+    private EventPayload payload;
+
+    public static EventMessage of(EventPayload payload, String userId) {
+        return new EventMessage(UUID.randomUUID().toString(), payload.eventType(), Instant.now(), userId, payload);
+    }
+}
@@ -0,0 +1,16 @@
+package by.bsuir.growpathserver.common.event;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, include = JsonTypeInfo.As.PROPERTY, property = "type")
+@JsonSubTypes({
+        @JsonSubTypes.Type(value = ApplicationCreatedPayload.class, name = "APPLICATION_CREATED"),
+        @JsonSubTypes.Type(value = TaskCompletedPayload.class, name = "TASK_COMPLETED"),
+        @JsonSubTypes.Type(value = TraineeProfileUpdatedPayload.class, name = "TRAINEE_PROFILE_UPDATED")
+})
+public sealed interface EventPayload permits ApplicationCreatedPayload, TaskCompletedPayload,
+        TraineeProfileUpdatedPayload {
+
+    EventType eventType();
+}
@@ -0,0 +1,17 @@
+package by.bsuir.growpathserver.common.event;
+
+public enum EventType {
+    APPLICATION_CREATED(ApplicationCreatedPayload.class),
+    TASK_COMPLETED(TaskCompletedPayload.class),
+    TRAINEE_PROFILE_UPDATED(TraineeProfileUpdatedPayload.class);
+
+    private final Class<? extends EventPayload> payloadType;
+
+    EventType(Class<? extends EventPayload> payloadType) {
+        this.payloadType = payloadType;
+    }
+
+    public Class<? extends EventPayload> getPayloadType() {
+        return payloadType;
+    }
+}
@@ -0,0 +1,90 @@
+package by.bsuir.growpathserver.common.event;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.RecordComponent;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Accessors and canonical constructor of a payload record, resolved once per event type
+ * so that payload fields can be read and written by name without per-call reflection.
+ */
+public final class PayloadDescriptor {
+
+    private static final Map<EventType, PayloadDescriptor> DESCRIPTORS = new EnumMap<>(EventType.class);
+
+    static {
+        for (EventType eventType : EventType.values()) {
+            DESCRIPTORS.put(eventType, new PayloadDescriptor(eventType.getPayloadType()));
+        }
+    }
+
+    private final String[] fieldNames;
+    private final Class<?>[] fieldTypes;
+    private final MethodHandle[] accessors;
+    private final MethodHandle constructor;
+    private final Map<String, Integer> indexByName = new HashMap<>();
+
+    private PayloadDescriptor(Class<? extends EventPayload> payloadType) {
+        RecordComponent[] components = payloadType.getRecordComponents();
+        this.fieldNames = new String[components.length];
+        this.fieldTypes = new Class<?>[components.length];
+        this.accessors = new MethodHandle[components.length];
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        try {
+            for (int i = 0; i < components.length; i++) {
+                fieldNames[i] = components[i].getName();
+                fieldTypes[i] = components[i].getType();
+                accessors[i] = lookup.unreflect(components[i].getAccessor());
+                indexByName.put(fieldNames[i], i);
+            }
+            this.constructor = lookup.unreflectConstructor(payloadType.getDeclaredConstructor(fieldTypes))
+                    .asSpreader(Object[].class, components.length);
+        }
+        catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot describe payload " + payloadType.getName(), e);
+        }
+    }
+
+    public static PayloadDescriptor of(EventType eventType) {
+        return DESCRIPTORS.get(eventType);
+    }
+
+    public int indexOf(String fieldName) {
+        Integer index = indexByName.get(fieldName);
+        return index != null ? index : -1;
+    }
+
+    public int getFieldCount() {
+        return fieldNames.length;
+    }
+
+    public Class<?> getFieldType(int index) {
+        return fieldTypes[index];
+    }
+
+    public Object get(EventPayload payload, int index) {
+        try {
+            return accessors[index].invoke(payload);
+        }
+        catch (Throwable e) {
+            throw new IllegalStateException("Cannot read payload field " + fieldNames[index], e);
+        }
+    }
+
+    public Object get(EventPayload payload, String fieldName) {
+        int index = indexOf(fieldName);
+        return index >= 0 ? get(payload, index) : null;
+    }
+
+    public EventPayload create(Object[] values) {
+        try {
+            return (EventPayload) constructor.invoke(values);
+        }
+        catch (Throwable e) {
+            throw new IllegalStateException("Cannot create payload", e);
+        }
+    }
+}
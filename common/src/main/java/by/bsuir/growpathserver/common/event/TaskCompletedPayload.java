@@ -0,0 +1,14 @@
+package by.bsuir.growpathserver.common.event;
+
+/**
+ * @param locale IETF language tag of the recipient, such as {@code en}; {@code null} selects
+ *               the default locale of the notification templates
+ */
+public record TaskCompletedPayload(String taskId, String taskName, String email, String locale)
+        implements EventPayload {
+
+    @Override
+    public EventType eventType() {
+        return EventType.TASK_COMPLETED;
+    }
+}
@@ -0,0 +1,9 @@
+package by.bsuir.growpathserver.common.event;
+
+public record TraineeProfileUpdatedPayload(String traineeId, Long version) implements EventPayload {
+
+    @Override
+    public EventType eventType() {
+        return EventType.TRAINEE_PROFILE_UPDATED;
+    }
+}
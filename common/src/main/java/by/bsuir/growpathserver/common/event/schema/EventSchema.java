@@ -0,0 +1,8 @@
+package by.bsuir.growpathserver.common.event.schema;
+
+import java.util.List;
+
+import by.bsuir.growpathserver.common.event.EventType;
+
+public record EventSchema(int id, EventType eventType, int version, List<SchemaField> fields) {
+}
@@ -0,0 +1,82 @@
+package by.bsuir.growpathserver.common.event.schema;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import by.bsuir.growpathserver.common.event.EventType;
+import by.bsuir.growpathserver.common.event.PayloadDescriptor;
+
+/**
+ * File-based stand-in for a schema registry. Schemas are JSON documents loaded from the
+ * configured resource locations; each has a globally unique {@code id} that is written into
+ * every binary message. Producers always write the latest version of an event type, and
+ * consumers resolve the writer's schema by id, so old and new versions can coexist.
+ */
+public class EventSchemaRegistry {
+
+    private final Map<Integer, EventSchema> schemasById = new HashMap<>();
+    private final Map<EventType, EventSchema> latestByType = new EnumMap<>(EventType.class);
+
+    public EventSchemaRegistry(List<String> locations, ObjectMapper objectMapper) {
+        ResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+        for (String location : locations) {
+            try {
+                for (Resource resource : resolver.getResources(location)) {
+                    try (InputStream inputStream = resource.getInputStream()) {
+                        register(objectMapper.readValue(inputStream, EventSchema.class));
+                    }
+                }
+            }
+            catch (IOException e) {
+                throw new IllegalStateException("Failed to load event schemas from " + location, e);
+            }
+        }
+
+        for (EventType eventType : EventType.values()) {
+            if (!latestByType.containsKey(eventType)) {
+                throw new IllegalStateException("No schema registered for event type " + eventType);
+            }
+        }
+    }
+
+    public EventSchema getSchema(int id) {
+        EventSchema schema = schemasById.get(id);
+        if (schema == null) {
+            throw new IllegalArgumentException("Unknown event schema id: " + id);
+        }
+        return schema;
+    }
+
+    public EventSchema getLatestSchema(EventType eventType) {
+        return latestByType.get(eventType);
+    }
+
+    private void register(EventSchema schema) {
+        EventSchema existing = schemasById.putIfAbsent(schema.id(), schema);
+        if (existing != null && !existing.equals(schema)) {
+            throw new IllegalStateException("Duplicate event schema id: " + schema.id());
+        }
+
+        PayloadDescriptor descriptor = PayloadDescriptor.of(schema.eventType());
+        for (SchemaField field : schema.fields()) {
+            int index = descriptor.indexOf(field.name());
+            if (index >= 0 && descriptor.getFieldType(index) != field.type().getJavaType()) {
+                throw new IllegalStateException("Field " + field.name() + " of schema " + schema.id() +
+                                                        " does not match the payload type");
+            }
+        }
+
+        latestByType.merge(schema.eventType(), schema,
+                           (current, candidate) -> candidate.version() > current.version() ? candidate : current);
+    }
+}
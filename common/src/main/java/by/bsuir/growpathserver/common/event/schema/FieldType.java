@@ -0,0 +1,26 @@
+package by.bsuir.growpathserver.common.event.schema;
+
+import java.time.Instant;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public enum FieldType {
+    @JsonProperty("string")
+    STRING(String.class),
+    @JsonProperty("long")
+    LONG(Long.class),
+    @JsonProperty("boolean")
+    BOOLEAN(Boolean.class),
+    @JsonProperty("timestamp")
+    TIMESTAMP(Instant.class);
+
+    private final Class<?> javaType;
+
+    FieldType(Class<?> javaType) {
+        this.javaType = javaType;
+    }
+
+    public Class<?> getJavaType() {
+        return javaType;
+    }
+}
@@ -0,0 +1,4 @@
+package by.bsuir.growpathserver.common.event.schema;
+
+public record SchemaField(String name, FieldType type) {
+}
@@ -0,0 +1,198 @@
+package by.bsuir.growpathserver.common.event.serialization;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+
+import by.bsuir.growpathserver.common.event.EventMessage;
+import by.bsuir.growpathserver.common.event.EventPayload;
+import by.bsuir.growpathserver.common.event.PayloadDescriptor;
+import by.bsuir.growpathserver.common.event.schema.EventSchema;
+import by.bsuir.growpathserver.common.event.schema.EventSchemaRegistry;
+import by.bsuir.growpathserver.common.event.schema.FieldType;
+import by.bsuir.growpathserver.common.event.schema.SchemaField;
+
+/**
+ * Compact binary encoding of {@link EventMessage}, in the spirit of Avro: a magic byte,
+ * the writer's schema id, the envelope and then the payload fields in schema order with
+ * no field names. Integers are zig-zag varints and strings are length-prefixed UTF-8.
+ * Every value is nullable: strings store {@code length + 1}, other types a leading flag.
+ * <p>
+ * Decoding resolves the writer's schema and matches its fields to the payload record by
+ * name; fields the reader does not know are skipped and fields the writer did not send
+ * are {@code null}.
+ */
+public class BinaryEventCodec {
+
+    public static final byte MAGIC_BYTE = 0x47;
+
+    private final EventSchemaRegistry schemaRegistry;
+
+    public BinaryEventCodec(EventSchemaRegistry schemaRegistry) {
+        this.schemaRegistry = schemaRegistry;
+    }
+
+    public byte[] encode(EventMessage message) {
+        EventPayload payload = message.getPayload();
+        EventSchema schema = schemaRegistry.getLatestSchema(payload.eventType());
+        PayloadDescriptor descriptor = PayloadDescriptor.of(schema.eventType());
+
+        Writer writer = new Writer();
+        writer.out.write(MAGIC_BYTE);
+        writer.writeVarLong(schema.id());
+        writer.writeString(message.getEventId());
+        writer.writeTimestamp(message.getTimestamp());
+        writer.writeString(message.getUserId());
+        for (SchemaField field : schema.fields()) {
+            writer.write(field.type(), descriptor.get(payload, field.name()));
+        }
+        return writer.out.toByteArray();
+    }
+
+    public EventMessage decode(byte[] data) {
+        Reader reader = new Reader(data);
+        if (reader.readByte() != MAGIC_BYTE) {
+            throw new IllegalArgumentException("Not a binary event message");
+        }
+
+        long schemaId = reader.readVarLong();
+        if (schemaId < 0 || schemaId > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid event schema id: " + schemaId);
+        }
+        EventSchema schema = schemaRegistry.getSchema((int) schemaId);
+        PayloadDescriptor descriptor = PayloadDescriptor.of(schema.eventType());
+
+        EventMessage message = new EventMessage();
+        message.setEventType(schema.eventType());
+        message.setEventId(reader.readString());
+        message.setTimestamp(reader.readTimestamp());
+        message.setUserId(reader.readString());
+
+        Object[] values = new Object[descriptor.getFieldCount()];
+        List<SchemaField> fields = schema.fields();
+        for (SchemaField field : fields) {
+            Object value = reader.read(field.type());
+            int index = descriptor.indexOf(field.name());
+            if (index >= 0) {
+                values[index] = value;
+            }
+        }
+        message.setPayload(descriptor.create(values));
+        return message;
+    }
+
+    private static final class Writer {
+
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream(128);
+
+        void write(FieldType type, Object value) {
+            switch (type) {
+                case STRING -> writeString((String) value);
+                case LONG -> writeNullableLong((Long) value);
+                case BOOLEAN -> out.write(value == null ? 0 : (Boolean) value ? 2 : 1);
+                case TIMESTAMP -> writeTimestamp((Instant) value);
+            }
+        }
+
+        void writeString(String value) {
+            if (value == null) {
+                writeVarLong(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length + 1L);
+            out.writeBytes(bytes);
+        }
+
+        void writeTimestamp(Instant value) {
+            writeNullableLong(value != null ? value.toEpochMilli() : null);
+        }
+
+        void writeNullableLong(Long value) {
+            if (value == null) {
+                out.write(0);
+                return;
+            }
+            out.write(1);
+            writeVarLong(value);
+        }
+
+        void writeVarLong(long value) {
+            long zigZag = (value << 1) ^ (value >> 63);
+            while ((zigZag & ~0x7FL) != 0) {
+                out.write((int) ((zigZag & 0x7F) | 0x80));
+                zigZag >>>= 7;
+            }
+            out.write((int) zigZag);
+        }
+    }
+
+    private static final class Reader {
+
+        private final byte[] data;
+        private int position;
+
+        Reader(byte[] data) {
+            this.data = data;
+        }
+
+        Object read(FieldType type) {
+            return switch (type) {
+                case STRING -> readString();
+                case LONG -> readNullableLong();
+                case BOOLEAN -> {
+                    byte flag = readByte();
+                    yield flag == 0 ? null : flag == 2;
+                }
+                case TIMESTAMP -> readTimestamp();
+            };
+        }
+
+        byte readByte() {
+            if (position >= data.length) {
+                throw new IllegalArgumentException("Truncated event message");
+            }
+            return data[position++];
+        }
+
+        String readString() {
+            long encodedLength = readVarLong();
+            if (encodedLength == 0) {
+                return null;
+            }
+            if (encodedLength < 0 || encodedLength - 1 > data.length - position) {
+                throw new IllegalArgumentException("Invalid string length in event message: " + (encodedLength - 1));
+            }
+            int length = (int) (encodedLength - 1);
+            String value = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        Instant readTimestamp() {
+            Long epochMilli = readNullableLong();
+            return epochMilli != null ? Instant.ofEpochMilli(epochMilli) : null;
+        }
+
+        Long readNullableLong() {
+            return readByte() == 0 ? null : readVarLong();
+        }
+
+        long readVarLong() {
+            long zigZag = 0;
+            int shift = 0;
+            byte b;
+            do {
+                if (shift > 63) {
+                    throw new IllegalArgumentException("Malformed varint in event message");
+                }
+                b = readByte();
+                zigZag |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            }
+            while ((b & 0x80) != 0);
+            return (zigZag >>> 1) ^ -(zigZag & 1);
+        }
+    }
+}
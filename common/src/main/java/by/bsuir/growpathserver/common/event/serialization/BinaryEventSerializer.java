@@ -0,0 +1,19 @@
+package by.bsuir.growpathserver.common.event.serialization;
+
+import org.apache.kafka.common.serialization.Serializer;
+
+import by.bsuir.growpathserver.common.event.EventMessage;
+
+public class BinaryEventSerializer implements Serializer<EventMessage> {
+
+    private final BinaryEventCodec codec;
+
+    public BinaryEventSerializer(BinaryEventCodec codec) {
+        this.codec = codec;
+    }
+
+    @Override
+    public byte[] serialize(String topic, EventMessage message) {
+        return message != null ? codec.encode(message) : null;
+    }
+}
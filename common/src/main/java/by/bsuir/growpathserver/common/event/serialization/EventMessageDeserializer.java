@@ -0,0 +1,78 @@
+package by.bsuir.growpathserver.common.event.serialization;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import by.bsuir.growpathserver.common.event.EventMessage;
+import by.bsuir.growpathserver.common.event.EventType;
+
+/**
+ * Reads both wire formats, choosing by the first byte, so producers can switch between
+ * {@code json} and {@code binary} without coordinating with consumers. JSON messages that
+ * still carry the old free-form {@code data} map are converted to the typed payload.
+ */
+public class EventMessageDeserializer implements Deserializer<EventMessage> {
+
+    private final BinaryEventCodec codec;
+    private final ObjectReader reader;
+
+    public EventMessageDeserializer(BinaryEventCodec codec, ObjectMapper objectMapper) {
+        this.codec = codec;
+        this.reader = objectMapper.reader().without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    @Override
+    public EventMessage deserialize(String topic, byte[] data) {
+        if (data == null || data.length == 0) {
+            return null;
+        }
+        try {
+            if (data[0] == BinaryEventCodec.MAGIC_BYTE) {
+                return codec.decode(data);
+            }
+            return readJson(data);
+        }
+        catch (IOException | RuntimeException e) {
+            throw new SerializationException("Failed to deserialize event from " + topic, e);
+        }
+    }
+
+    private EventMessage readJson(byte[] data) throws IOException {
+        JsonNode tree = reader.readTree(data);
+        if (!tree.hasNonNull("payload") && tree.hasNonNull("data") && tree.hasNonNull("eventType")) {
+            EventType eventType = EventType.valueOf(tree.get("eventType").asText());
+            ObjectNode payload = ((ObjectNode) tree.get("data")).deepCopy();
+            payload.put("type", eventType.name());
+            ((ObjectNode) tree).set("payload", payload);
+            ((ObjectNode) tree).remove("data");
+            convertLegacyTimestamp((ObjectNode) tree);
+        }
+        return reader.forType(EventMessage.class).readValue(tree);
+    }
+
+    private static void convertLegacyTimestamp(ObjectNode tree) {
+        JsonNode timestamp = tree.get("timestamp");
+        if (timestamp == null || timestamp.isNull()) {
+            return;
+        }
+        try {
+            Instant instant = LocalDateTime.parse(timestamp.asText()).atZone(ZoneId.systemDefault()).toInstant();
+            tree.put("timestamp", instant.toString());
+        }
+        catch (DateTimeParseException e) {
+            tree.remove("timestamp");
+        }
+    }
+}
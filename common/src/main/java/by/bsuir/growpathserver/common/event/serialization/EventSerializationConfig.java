@@ -0,0 +1,50 @@
+package by.bsuir.growpathserver.common.event.serialization;
+
+import java.util.List;
+
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import by.bsuir.growpathserver.common.event.EventMessage;
+import by.bsuir.growpathserver.common.event.schema.EventSchemaRegistry;
+
+@Configuration
+public class EventSerializationConfig {
+
+    @Value("${kafka.events.format:binary}")
+    private String format;
+
+    @Value("${kafka.events.schema-locations:classpath*:events/schemas/*.json}")
+    private List<String> schemaLocations;
+
+    @Bean
+    public EventSchemaRegistry eventSchemaRegistry(ObjectMapper objectMapper) {
+        return new EventSchemaRegistry(schemaLocations, objectMapper);
+    }
+
+    @Bean
+    public BinaryEventCodec binaryEventCodec(EventSchemaRegistry eventSchemaRegistry) {
+        return new BinaryEventCodec(eventSchemaRegistry);
+    }
+
+    @Bean
+    public Serializer<EventMessage> eventMessageSerializer(BinaryEventCodec binaryEventCodec,
+                                                           ObjectMapper objectMapper) {
+        return switch (format) {
+            case "binary" -> new BinaryEventSerializer(binaryEventCodec);
+            case "json" -> new JsonEventSerializer(objectMapper);
+            default -> throw new IllegalArgumentException("Unsupported event format: " + format);
+        };
+    }
+
+    @Bean
+    public Deserializer<EventMessage> eventMessageDeserializer(BinaryEventCodec binaryEventCodec,
+                                                               ObjectMapper objectMapper) {
+        return new EventMessageDeserializer(binaryEventCodec, objectMapper);
+    }
+}
@@ -0,0 +1,31 @@
+package by.bsuir.growpathserver.common.event.serialization;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import by.bsuir.growpathserver.common.event.EventMessage;
+
+public class JsonEventSerializer implements Serializer<EventMessage> {
+
+    private final ObjectMapper objectMapper;
+
+    public JsonEventSerializer(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public byte[] serialize(String topic, EventMessage message) {
+        if (message == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsBytes(message);
+        }
+        catch (JsonProcessingException e) {
+            throw new SerializationException("Failed to serialize event for " + topic, e);
+        }
+    }
+}
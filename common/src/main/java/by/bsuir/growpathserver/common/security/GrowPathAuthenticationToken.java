@@ -0,0 +1,34 @@
+package by.bsuir.growpathserver.common.security;
+
+import java.util.Map;
+
+import org.springframework.security.core.Transient;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.AbstractOAuth2TokenAuthenticationToken;
+
+@Transient
+public class GrowPathAuthenticationToken extends AbstractOAuth2TokenAuthenticationToken<Jwt> {
+
+    private final GrowPathPrincipal growPathPrincipal;
+
+    public GrowPathAuthenticationToken(Jwt jwt, GrowPathPrincipal principal) {
+        super(jwt, principal, jwt, principal.getAuthorities());
+        this.growPathPrincipal = principal;
+        setAuthenticated(true);
+    }
+
+    @Override
+    public Map<String, Object> getTokenAttributes() {
+        return getToken().getClaims();
+    }
+
+    @Override
+    public GrowPathPrincipal getPrincipal() {
+        return growPathPrincipal;
+    }
+
+    @Override
+    public String getName() {
+        return growPathPrincipal.getName();
+    }
+}
@@ -0,0 +1,13 @@
+package by.bsuir.growpathserver.common.security;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+public class GrowPathJwtAuthenticationConverter implements Converter<Jwt, AbstractAuthenticationToken> {
+
+    @Override
+    public AbstractAuthenticationToken convert(Jwt jwt) {
+        return new GrowPathAuthenticationToken(jwt, GrowPathPrincipal.from(jwt));
+    }
+}
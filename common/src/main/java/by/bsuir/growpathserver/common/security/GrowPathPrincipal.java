@@ -0,0 +1,123 @@
+package by.bsuir.growpathserver.common.security;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import by.bsuir.growpathserver.common.util.JwtUtils;
+
+/**
+ * Immutable view of the authenticated user, built once per token. Known realm roles are held
+ * in an {@link EnumSet} backed by shared {@link GrantedAuthority} instances, so role checks
+ * do not allocate.
+ */
+public final class GrowPathPrincipal implements AuthenticatedPrincipal {
+
+    private final String subject;
+    private final String username;
+    private final String email;
+    private final String firstName;
+    private final String lastName;
+    private final Set<Role> roles;
+    private final Set<String> otherRoles;
+    private final List<GrantedAuthority> authorities;
+    private final List<String> authorityNames;
+
+    private GrowPathPrincipal(String subject, String username, String email, String firstName, String lastName,
+                              EnumSet<Role> roles, Set<String> otherRoles) {
+        this.subject = subject;
+        this.username = username;
+        this.email = email;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.roles = Collections.unmodifiableSet(roles);
+        this.otherRoles = Collections.unmodifiableSet(otherRoles);
+
+        List<GrantedAuthority> grantedAuthorities = new ArrayList<>(roles.size() + otherRoles.size());
+        roles.forEach(role -> grantedAuthorities.add(role.getAuthority()));
+        otherRoles.forEach(role -> grantedAuthorities.add(new SimpleGrantedAuthority("ROLE_" + role)));
+        this.authorities = List.copyOf(grantedAuthorities);
+        this.authorityNames = grantedAuthorities.stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+    }
+
+    public static GrowPathPrincipal from(Jwt jwt) {
+        EnumSet<Role> roles = EnumSet.noneOf(Role.class);
+        Set<String> otherRoles = new LinkedHashSet<>();
+        for (String roleName : JwtUtils.getRealmRoles(jwt)) {
+            Role role = Role.fromName(roleName);
+            if (role != null) {
+                roles.add(role);
+            }
+            else {
+                otherRoles.add(roleName);
+            }
+        }
+
+        return new GrowPathPrincipal(jwt.getSubject(), JwtUtils.getUsername(jwt), JwtUtils.getEmail(jwt),
+                                     JwtUtils.getFirstName(jwt), JwtUtils.getLastName(jwt), roles, otherRoles);
+    }
+
+    @Override
+    public String getName() {
+        return username != null ? username : subject;
+    }
+
+    public boolean hasRole(Role role) {
+        return roles.contains(role);
+    }
+
+    public boolean hasAnyRole(Role... candidates) {
+        for (Role candidate : candidates) {
+            if (roles.contains(candidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public Set<Role> getRoles() {
+        return roles;
+    }
+
+    public Set<String> getOtherRoles() {
+        return otherRoles;
+    }
+
+    public List<GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    public List<String> getAuthorityNames() {
+        return authorityNames;
+    }
+}
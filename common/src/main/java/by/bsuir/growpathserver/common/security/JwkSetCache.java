@@ -0,0 +1,206 @@
+package by.bsuir.growpathserver.common.security;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.SignedJWT;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * In-memory JWK set loaded from Keycloak at startup and refreshed in the background.
+ * A token signed with an unknown {@code kid} triggers an out-of-band refresh, rate limited
+ * by {@code minRefreshInterval}, so key rotation is picked up without waiting for the schedule.
+ * Lookups that miss while a refresh is in flight wait for it, up to twice the request
+ * timeout, and look the key up again instead of rejecting the token right away.
+ * On a failed refresh the previously loaded keys keep being served.
+ */
+@Slf4j
+public class JwkSetCache implements JWKSource<SecurityContext>, InitializingBean, DisposableBean {
+
+    private final URI jwkSetUri;
+    private final Duration refreshInterval;
+    private final Duration minRefreshInterval;
+    private final Duration requestTimeout;
+    private final HttpClient httpClient;
+    private final ScheduledExecutorService scheduler;
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    private volatile JWKSet jwkSet = new JWKSet();
+    private volatile Instant lastRefreshAttempt = Instant.EPOCH;
+    private volatile Instant lastSuccessfulRefresh;
+
+    public JwkSetCache(URI jwkSetUri, Duration refreshInterval, Duration minRefreshInterval, Duration requestTimeout) {
+        this.jwkSetUri = jwkSetUri;
+        this.refreshInterval = refreshInterval;
+        this.minRefreshInterval = minRefreshInterval;
+        this.requestTimeout = requestTimeout;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(requestTimeout)
+                .build();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "jwk-set-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        refreshQuietly();
+        scheduler.scheduleWithFixedDelay(this::refreshQuietly, refreshInterval.toMillis(),
+                                         refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    @Override
+    public List<JWK> get(JWKSelector jwkSelector, SecurityContext context) {
+        List<JWK> keys = jwkSelector.select(jwkSet);
+        if (keys.isEmpty()) {
+            refreshForUnknownKey();
+            keys = jwkSelector.select(jwkSet);
+        }
+        return keys;
+    }
+
+    public Flux<JWK> getKeys(SignedJWT jwt) {
+        JWKSelector selector = new JWKSelector(JWKMatcher.forJWSHeader(jwt.getHeader()));
+        List<JWK> keys = selector.select(jwkSet);
+        if (!keys.isEmpty()) {
+            return Flux.fromIterable(keys);
+        }
+        return Mono.fromCallable(() -> get(selector, null))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapIterable(found -> found);
+    }
+
+    public JwtDecoder jwtDecoder(String issuerUri) {
+        DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, this));
+        jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+
+        NimbusJwtDecoder decoder = new NimbusJwtDecoder(jwtProcessor);
+        decoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(issuerUri));
+        return decoder;
+    }
+
+    public ReactiveJwtDecoder reactiveJwtDecoder(String issuerUri) {
+        NimbusReactiveJwtDecoder decoder = NimbusReactiveJwtDecoder.withJwkSource(this::getKeys).build();
+        decoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(issuerUri));
+        return decoder;
+    }
+
+    public boolean isReady() {
+        return !jwkSet.getKeys().isEmpty();
+    }
+
+    public int getKeyCount() {
+        return jwkSet.getKeys().size();
+    }
+
+    public Instant getLastSuccessfulRefresh() {
+        return lastSuccessfulRefresh;
+    }
+
+    public URI getJwkSetUri() {
+        return jwkSetUri;
+    }
+
+    private void refreshForUnknownKey() {
+        if (!refreshLock.isLocked() && Instant.now().isBefore(lastRefreshAttempt.plus(minRefreshInterval))) {
+            return;
+        }
+        try {
+            if (!refreshLock.tryLock(requestTimeout.multipliedBy(2).toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("Timed out waiting for the in-flight JWK set refresh from {}", jwkSetUri);
+                return;
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            if (Instant.now().isBefore(lastRefreshAttempt.plus(minRefreshInterval))) {
+                return;
+            }
+            log.info("Unknown signing key requested, refreshing JWK set from {}", jwkSetUri);
+            refresh();
+        }
+        finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private void refreshQuietly() {
+        refreshLock.lock();
+        try {
+            refresh();
+        }
+        finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private void refresh() {
+        lastRefreshAttempt = Instant.now();
+        try {
+            HttpRequest request = HttpRequest.newBuilder(jwkSetUri)
+                    .timeout(requestTimeout)
+                    .GET()
+                    .build();
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                log.warn("Failed to refresh JWK set from {}: HTTP {}", jwkSetUri, response.statusCode());
+                return;
+            }
+
+            JWKSet loaded = JWKSet.parse(response.body());
+            jwkSet = loaded;
+            lastSuccessfulRefresh = Instant.now();
+            log.debug("Loaded {} keys from {}", loaded.getKeys().size(), jwkSetUri);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        catch (IOException | ParseException e) {
+            log.warn("Failed to refresh JWK set from {}, keeping {} cached keys", jwkSetUri, getKeyCount(), e);
+        }
+    }
+}
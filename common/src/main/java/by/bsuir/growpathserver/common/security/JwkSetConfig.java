@@ -0,0 +1,34 @@
+package by.bsuir.growpathserver.common.security;
+
+import java.net.URI;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JwkSetConfig {
+
+    @Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri}")
+    private String jwkSetUri;
+
+    @Value("${security.jwk.refresh-interval:5m}")
+    private Duration refreshInterval;
+
+    @Value("${security.jwk.min-refresh-interval:30s}")
+    private Duration minRefreshInterval;
+
+    @Value("${security.jwk.request-timeout:5s}")
+    private Duration requestTimeout;
+
+    @Bean
+    public JwkSetCache jwkSetCache() {
+        return new JwkSetCache(URI.create(jwkSetUri), refreshInterval, minRefreshInterval, requestTimeout);
+    }
+
+    @Bean
+    public JwkSetHealthIndicator jwkSetHealthIndicator(JwkSetCache jwkSetCache) {
+        return new JwkSetHealthIndicator(jwkSetCache);
+    }
+}
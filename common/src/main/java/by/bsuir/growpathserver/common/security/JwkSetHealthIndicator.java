@@ -0,0 +1,23 @@
+package by.bsuir.growpathserver.common.security;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class JwkSetHealthIndicator implements HealthIndicator {
+
+    private final JwkSetCache jwkSetCache;
+
+    @Override
+    public Health health() {
+        Health.Builder builder = jwkSetCache.isReady() ? Health.up() : Health.down();
+        builder.withDetail("jwkSetUri", jwkSetCache.getJwkSetUri().toString())
+                .withDetail("keys", jwkSetCache.getKeyCount());
+        if (jwkSetCache.getLastSuccessfulRefresh() != null) {
+            builder.withDetail("lastRefresh", jwkSetCache.getLastSuccessfulRefresh().toString());
+        }
+        return builder.build();
+    }
+}
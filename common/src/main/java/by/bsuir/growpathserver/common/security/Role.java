@@ -0,0 +1,29 @@
+package by.bsuir.growpathserver.common.security;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+public enum Role {
+    ADMIN,
+    HR_MANAGER,
+    INTERN,
+    MENTOR;
+
+    private static final Map<String, Role> BY_NAME = Arrays.stream(values())
+            .collect(Collectors.toUnmodifiableMap(Role::name, Function.identity()));
+
+    private final GrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + name());
+
+    public GrantedAuthority getAuthority() {
+        return authority;
+    }
+
+    public static Role fromName(String name) {
+        return name != null ? BY_NAME.get(name) : null;
+    }
+}
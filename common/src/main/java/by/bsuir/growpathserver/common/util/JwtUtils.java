@@ -6,14 +6,21 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.oauth2.jwt.Jwt;
 
+import by.bsuir.growpathserver.common.security.Role;
+
 import java.util.Collection;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class JwtUtils {
 
     public static Collection<GrantedAuthority> extractRoles(Jwt jwt) {
+        return getRealmRoles(jwt).stream()
+                .map(JwtUtils::toAuthority)
+                .toList();
+    }
+
+    public static List<String> getRealmRoles(Jwt jwt) {
         @SuppressWarnings("unchecked")
         var realmAccess = (java.util.Map<String, Object>) jwt.getClaims().get("realm_access");
         if (realmAccess == null) {
@@ -26,14 +33,11 @@ public class JwtUtils {
             return List.of();
         }
 
-        return roles.stream()
-                .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
-                .collect(Collectors.toList());
+        return roles;
     }
 
     public static boolean hasRole(Jwt jwt, String role) {
-        return extractRoles(jwt).stream()
-                .anyMatch(authority -> authority.getAuthority().equals("ROLE_" + role));
+        return getRealmRoles(jwt).contains(role);
     }
 
     public static String getUsername(Jwt jwt) {
@@ -55,4 +59,9 @@ public class JwtUtils {
         Object claim = jwt.getClaims().get("family_name");
         return claim instanceof String ? (String) claim : null;
     }
+
+    private static GrantedAuthority toAuthority(String roleName) {
+        Role role = Role.fromName(roleName);
+        return role != null ? role.getAuthority() : new SimpleGrantedAuthority("ROLE_" + roleName);
+    }
 }
@@ -0,0 +1,256 @@
+package by.bsuir.growpathserver.common.event.serialization;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+import by.bsuir.growpathserver.common.event.ApplicationCreatedPayload;
+import by.bsuir.growpathserver.common.event.EventMessage;
+import by.bsuir.growpathserver.common.event.EventPayload;
+import by.bsuir.growpathserver.common.event.EventType;
+import by.bsuir.growpathserver.common.event.TaskCompletedPayload;
+import by.bsuir.growpathserver.common.event.TraineeProfileUpdatedPayload;
+import by.bsuir.growpathserver.common.event.schema.EventSchemaRegistry;
+
+class BinaryEventCodecTests {
+
+    private static final String SCHEMAS = "classpath*:events/schemas/*.json";
+    private static final String TEST_SCHEMAS = "classpath*:events/test-schemas/*.json";
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private final BinaryEventCodec codec = new BinaryEventCodec(new EventSchemaRegistry(List.of(SCHEMAS),
+                                                                                         objectMapper));
+    private final EventMessageDeserializer deserializer = new EventMessageDeserializer(codec, objectMapper);
+
+    @Test
+    void roundTripsEveryPayloadType() {
+        List<EventMessage> messages = List.of(
+                message(new ApplicationCreatedPayload("application-1", "trainee@growpath.local", null), "user-1"),
+                message(new TaskCompletedPayload("task-1", "Задача «Ревью»", "trainee@growpath.local", "ru"),
+                        "user-2"),
+                message(new TraineeProfileUpdatedPayload("user-3", Long.MAX_VALUE), "user-3"),
+                message(new TraineeProfileUpdatedPayload("user-4", -1L), "user-4"));
+
+        for (EventMessage message : messages) {
+            assertThat(codec.decode(codec.encode(message))).isEqualTo(message);
+        }
+    }
+
+    @Test
+    void roundTripsNullValues() {
+        EventMessage message = new EventMessage(null, EventType.TASK_COMPLETED, null, null,
+                                                new TaskCompletedPayload(null, "", null, null));
+
+        assertThat(codec.decode(codec.encode(message))).isEqualTo(message);
+    }
+
+    @Test
+    void deserializesBinaryAndCurrentJsonFormats() {
+        EventMessage message = message(new TaskCompletedPayload("task-1", "Review", "trainee@growpath.local", "en"),
+                                       "user-1");
+
+        byte[] binary = new BinaryEventSerializer(codec).serialize("events", message);
+        byte[] json = new JsonEventSerializer(objectMapper).serialize("events", message);
+
+        assertThat(deserializer.deserialize("events", binary)).isEqualTo(message);
+        assertThat(deserializer.deserialize("events", json)).isEqualTo(message);
+    }
+
+    @Test
+    void convertsLegacyJsonWithDataMap() {
+        String json = """
+                {
+                  "eventId": "event-1",
+                  "eventType": "APPLICATION_CREATED",
+                  "timestamp": "2025-03-01T12:30:00",
+                  "userId": "user-1",
+                  "data": { "applicationId": "application-1", "email": "trainee@growpath.local", "extra": 1 }
+                }
+                """;
+
+        EventMessage message = deserializer.deserialize("events", json.getBytes(StandardCharsets.UTF_8));
+
+        assertThat(message.getEventId()).isEqualTo("event-1");
+        assertThat(message.getEventType()).isEqualTo(EventType.APPLICATION_CREATED);
+        assertThat(message.getTimestamp()).isEqualTo(LocalDateTime.parse("2025-03-01T12:30:00")
+                                                              .atZone(ZoneId.systemDefault())
+                                                              .toInstant());
+        assertThat(message.getPayload())
+                .isEqualTo(new ApplicationCreatedPayload("application-1", "trainee@growpath.local", null));
+    }
+
+    @Test
+    void dropsUnparseableLegacyTimestamp() {
+        String json = """
+                {"eventType": "TASK_COMPLETED", "timestamp": "yesterday",
+                 "data": {"taskId": "task-1", "taskName": "Review", "email": "trainee@growpath.local"}}
+                """;
+
+        EventMessage message = deserializer.deserialize("events", json.getBytes(StandardCharsets.UTF_8));
+
+        assertThat(message.getTimestamp()).isNull();
+        assertThat(message.getPayload())
+                .isEqualTo(new TaskCompletedPayload("task-1", "Review", "trainee@growpath.local", null));
+    }
+
+    @Test
+    void readsOlderAndNewerWriterSchemasByName() {
+        BinaryEventCodec evolvedCodec = new BinaryEventCodec(new EventSchemaRegistry(List.of(SCHEMAS, TEST_SCHEMAS),
+                                                                                     objectMapper));
+        BinaryWriter writer = new BinaryWriter();
+        writer.writeByte(BinaryEventCodec.MAGIC_BYTE);
+        writer.writeVarLong(1003);
+        writer.writeString("event-1");
+        writer.writeByte(1);
+        writer.writeVarLong(1_700_000_000_000L);
+        writer.writeString("user-1");
+        writer.writeString("task-1");
+        writer.writeByte(1);
+        writer.writeVarLong(5);
+        writer.writeString("Review");
+
+        EventMessage message = evolvedCodec.decode(writer.toByteArray());
+
+        assertThat(message.getTimestamp()).isEqualTo(Instant.ofEpochMilli(1_700_000_000_000L));
+        assertThat(message.getPayload()).isEqualTo(new TaskCompletedPayload("task-1", "Review", null, null));
+
+        EventMessage current = message(new TaskCompletedPayload("task-1", "Review", "trainee@growpath.local", "en"),
+                                       "user-1");
+        assertThat(evolvedCodec.decode(codec.encode(current))).isEqualTo(current);
+
+        BinaryWriter v1 = new BinaryWriter();
+        v1.writeByte(BinaryEventCodec.MAGIC_BYTE);
+        v1.writeVarLong(2);
+        v1.writeString("event-2");
+        v1.writeByte(0);
+        v1.writeString("user-1");
+        v1.writeString("task-1");
+        v1.writeString("Review");
+        v1.writeString("trainee@growpath.local");
+        assertThat(codec.decode(v1.toByteArray()).getPayload())
+                .isEqualTo(new TaskCompletedPayload("task-1", "Review", "trainee@growpath.local", null));
+    }
+
+    @Test
+    void rejectsTruncatedMessages() {
+        TaskCompletedPayload payload = new TaskCompletedPayload("task-1", "Review", "trainee@growpath.local", "en");
+        byte[] data = codec.encode(message(payload, "user-1"));
+
+        for (int length = 1; length < data.length; length++) {
+            byte[] truncated = Arrays.copyOf(data, length);
+            assertThatThrownBy(() -> codec.decode(truncated)).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    void rejectsStringLengthBeyondMessage() {
+        BinaryWriter writer = new BinaryWriter();
+        writer.writeByte(BinaryEventCodec.MAGIC_BYTE);
+        writer.writeVarLong(2);
+        writer.writeVarLong(Integer.MAX_VALUE + 10L);
+        writer.writeByte('x');
+
+        assertThatThrownBy(() -> codec.decode(writer.toByteArray()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid string length");
+    }
+
+    @Test
+    void rejectsNegativeStringLength() {
+        BinaryWriter writer = new BinaryWriter();
+        writer.writeByte(BinaryEventCodec.MAGIC_BYTE);
+        writer.writeVarLong(2);
+        writer.writeVarLong(-5);
+
+        assertThatThrownBy(() -> codec.decode(writer.toByteArray()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid string length");
+    }
+
+    @Test
+    void rejectsUnknownAndInvalidSchemaIds() {
+        BinaryWriter unknown = new BinaryWriter();
+        unknown.writeByte(BinaryEventCodec.MAGIC_BYTE);
+        unknown.writeVarLong(999);
+
+        BinaryWriter invalid = new BinaryWriter();
+        invalid.writeByte(BinaryEventCodec.MAGIC_BYTE);
+        invalid.writeVarLong(Long.MAX_VALUE);
+
+        assertThatThrownBy(() -> codec.decode(unknown.toByteArray()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unknown event schema id");
+        assertThatThrownBy(() -> codec.decode(invalid.toByteArray()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid event schema id");
+    }
+
+    @Test
+    void rejectsOverlongVarint() {
+        byte[] data = new byte[12];
+        data[0] = BinaryEventCodec.MAGIC_BYTE;
+        Arrays.fill(data, 1, data.length, (byte) 0xFF);
+
+        assertThatThrownBy(() -> codec.decode(data)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void wrapsCorruptInputInSerializationException() {
+        byte[] corrupt = {BinaryEventCodec.MAGIC_BYTE, 4};
+        byte[] brokenJson = "{\"eventType\": ".getBytes(StandardCharsets.UTF_8);
+
+        assertThatThrownBy(() -> deserializer.deserialize("events", corrupt))
+                .isInstanceOf(SerializationException.class);
+        assertThatThrownBy(() -> deserializer.deserialize("events", brokenJson))
+                .isInstanceOf(SerializationException.class);
+        assertThat(deserializer.deserialize("events", new byte[0])).isNull();
+        assertThat(deserializer.deserialize("events", null)).isNull();
+    }
+
+    private static EventMessage message(EventPayload payload, String userId) {
+        EventMessage message = EventMessage.of(payload, userId);
+        message.setTimestamp(Instant.ofEpochMilli(message.getTimestamp().toEpochMilli()));
+        return message;
+    }
+
+    private static final class BinaryWriter {
+
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        void writeByte(int value) {
+            out.write(value);
+        }
+
+        void writeString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length + 1L);
+            out.writeBytes(bytes);
+        }
+
+        void writeVarLong(long value) {
+            long zigZag = (value << 1) ^ (value >> 63);
+            while ((zigZag & ~0x7FL) != 0) {
+                out.write((int) ((zigZag & 0x7F) | 0x80));
+                zigZag >>>= 7;
+            }
+            out.write((int) zigZag);
+        }
+
+        byte[] toByteArray() {
+            return out.toByteArray();
+        }
+    }
+}
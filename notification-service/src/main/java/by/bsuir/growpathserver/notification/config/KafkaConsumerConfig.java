@@ -1,19 +1,46 @@
 package by.bsuir.growpathserver.notification.config;
 
+import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
-import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.util.backoff.FixedBackOff;
 
+import by.bsuir.growpathserver.common.event.EventMessage;
+import by.bsuir.growpathserver.common.event.serialization.EventSerializationConfig;
+import by.bsuir.growpathserver.notification.service.EventRetryRouter;
+
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 @Configuration
+@Import(EventSerializationConfig.class)
 public class KafkaConsumerConfig {
 
     @Value("${spring.kafka.bootstrap-servers}")
@@ -22,21 +49,154 @@ public class KafkaConsumerConfig {
     @Value("${spring.kafka.consumer.group-id}")
     private String groupId;
 
+    @Value("${kafka.consumer.max-poll-records:500}")
+    private int maxPollRecords;
+
+    @Value("${kafka.consumer.fetch-max-wait-ms:500}")
+    private int fetchMaxWaitMs;
+
+    @Value("${kafka.consumer.concurrency:${kafka.topics.events.partitions:6}}")
+    private int concurrency;
+
+    @Value("${kafka.topics.events.partitions:6}")
+    private int eventsTopicPartitions;
+
+    @Value("${kafka.topics.events.replicas:1}")
+    private int eventsTopicReplicas;
+
+    @Value("${kafka.consumer.batch-timeout:2m}")
+    private Duration batchTimeout;
+
+    @Value("${kafka.retry.send-timeout:30s}")
+    private Duration retrySendTimeout;
+
+    @Value("${kafka.retry.concurrency:1}")
+    private int retryConcurrency;
+
     @Bean
-    public ConsumerFactory<String, Object> consumerFactory() {
+    public ConsumerFactory<String, EventMessage> consumerFactory(Deserializer<EventMessage> eventMessageDeserializer) {
         Map<String, Object> configProps = new HashMap<>();
         configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
-        configProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
-        configProps.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
-        return new DefaultKafkaConsumerFactory<>(configProps);
+        configProps.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        configProps.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, fetchMaxWaitMs);
+        return new DefaultKafkaConsumerFactory<>(configProps, new StringDeserializer(),
+                                                 new ErrorHandlingDeserializer<>(eventMessageDeserializer));
+    }
+
+    @Bean
+    public ProducerFactory<String, EventMessage> producerFactory(Serializer<EventMessage> eventMessageSerializer) {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ProducerConfig.ACKS_CONFIG, "all");
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        return new DefaultKafkaProducerFactory<>(configProps, new StringSerializer(), eventMessageSerializer);
+    }
+
+    @Bean
+    public KafkaTemplate<String, EventMessage> kafkaTemplate(ProducerFactory<String, EventMessage> producerFactory) {
+        return new KafkaTemplate<>(producerFactory);
+    }
+
+    /**
+     * Publishes the raw bytes of records that could not be deserialized to the dead-letter
+     * topic.
+     */
+    @Bean
+    public KafkaTemplate<String, byte[]> deadLetterBytesKafkaTemplate() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ProducerConfig.ACKS_CONFIG, "all");
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(configProps, new StringSerializer(),
+                                                                     new ByteArraySerializer()));
     }
 
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, Object> kafkaListenerContainerFactory() {
-        ConcurrentKafkaListenerContainerFactory<String, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
-        factory.setConsumerFactory(consumerFactory());
+    public KafkaAdmin.NewTopics retryTopics(EventRetryRouter eventRetryRouter) {
+        List<NewTopic> topics = new ArrayList<>();
+        for (String retryTopic : eventRetryRouter.getRetryTopics()) {
+            topics.add(TopicBuilder.name(retryTopic)
+                               .partitions(eventsTopicPartitions)
+                               .replicas(eventsTopicReplicas)
+                               .build());
+        }
+        topics.add(TopicBuilder.name(eventRetryRouter.getDeadLetterTopic())
+                           .partitions(eventsTopicPartitions)
+                           .replicas(eventsTopicReplicas)
+                           .build());
+        return new KafkaAdmin.NewTopics(topics.toArray(NewTopic[]::new));
+    }
+
+    /**
+     * Sends failed records to the dead-letter topic. Records whose value could not be
+     * deserialized reach the listener as {@code null} and are published with their original
+     * bytes, so a corrupt record never stalls its partition.
+     */
+    @Bean
+    public DeadLetterPublishingRecoverer deadLetterPublishingRecoverer(
+            KafkaTemplate<String, EventMessage> kafkaTemplate,
+            KafkaTemplate<String, byte[]> deadLetterBytesKafkaTemplate,
+            EventRetryRouter eventRetryRouter) {
+        Map<Class<?>, KafkaOperations<?, ?>> templates = new LinkedHashMap<>();
+        templates.put(byte[].class, deadLetterBytesKafkaTemplate);
+        templates.put(EventMessage.class, kafkaTemplate);
+        return new DeadLetterPublishingRecoverer(
+                templates, (record, e) -> new TopicPartition(eventRetryRouter.getDeadLetterTopic(), -1));
+    }
+
+    @Bean
+    public DefaultErrorHandler kafkaErrorHandler(DeadLetterPublishingRecoverer deadLetterPublishingRecoverer) {
+        return new DefaultErrorHandler(deadLetterPublishingRecoverer, new FixedBackOff(0L, 0L));
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, EventMessage> kafkaListenerContainerFactory(
+            ConsumerFactory<String, EventMessage> consumerFactory, DefaultErrorHandler kafkaErrorHandler) {
+        ConcurrentKafkaListenerContainerFactory<String, EventMessage> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setBatchListener(true);
+        factory.setConcurrency(concurrency);
+        factory.setCommonErrorHandler(kafkaErrorHandler);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.getContainerProperties().setShutdownTimeout(batchTimeout.plus(retrySendTimeout).toMillis());
+        return factory;
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, EventMessage> retryKafkaListenerContainerFactory(
+            ConsumerFactory<String, EventMessage> consumerFactory, DefaultErrorHandler kafkaErrorHandler) {
+        ConcurrentKafkaListenerContainerFactory<String, EventMessage> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setBatchListener(true);
+        factory.setConcurrency(retryConcurrency);
+        factory.setCommonErrorHandler(kafkaErrorHandler);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        return factory;
+    }
+
+    /**
+     * Listener factory for the per-instance notification stream feed. Partitions are assigned
+     * manually and the listener never acknowledges, so nothing is committed for the group.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, EventMessage> liveKafkaListenerContainerFactory(
+            Deserializer<EventMessage> eventMessageDeserializer) {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ConsumerConfig.GROUP_ID_CONFIG, groupId + "-live");
+        configProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        configProps.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+
+        ConcurrentKafkaListenerContainerFactory<String, EventMessage> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(
+                configProps, new StringDeserializer(), new ErrorHandlingDeserializer<>(eventMessageDeserializer)));
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
         return factory;
     }
 }
@@ -0,0 +1,77 @@
+package by.bsuir.growpathserver.notification.config;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.PartitionInfo;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.KafkaListenerConfigurer;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistrar;
+import org.springframework.kafka.config.SimpleKafkaListenerEndpoint;
+import org.springframework.kafka.listener.BatchMessageListener;
+import org.springframework.kafka.support.TopicPartitionOffset;
+
+import by.bsuir.growpathserver.common.event.EventMessage;
+import by.bsuir.growpathserver.notification.listener.LiveNotificationListener;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Registers the live notification listener on every partition the events topic has at
+ * startup, each read from its end. The partitions are read from the broker, so a topic
+ * with more partitions than {@code kafka.topics.events.partitions} still reaches every
+ * stream; the configured count is used only when the topic does not exist yet.
+ */
+@Slf4j
+@Configuration
+public class LiveListenerConfig implements KafkaListenerConfigurer {
+
+    private final LiveNotificationListener liveNotificationListener;
+    private final ConcurrentKafkaListenerContainerFactory<String, EventMessage> containerFactory;
+
+    @Value("${kafka.topics.events.name:growpath-events}")
+    private String eventsTopic;
+
+    @Value("${kafka.topics.events.partitions:6}")
+    private int eventsTopicPartitions;
+
+    public LiveListenerConfig(
+            LiveNotificationListener liveNotificationListener,
+            @Qualifier("liveKafkaListenerContainerFactory")
+            ConcurrentKafkaListenerContainerFactory<String, EventMessage> containerFactory) {
+        this.liveNotificationListener = liveNotificationListener;
+        this.containerFactory = containerFactory;
+    }
+
+    @Override
+    public void configureKafkaListeners(KafkaListenerEndpointRegistrar registrar) {
+        SimpleKafkaListenerEndpoint<String, EventMessage> endpoint = new SimpleKafkaListenerEndpoint<>();
+        endpoint.setId(LiveNotificationListener.LISTENER_ID);
+        endpoint.setTopicPartitions(getPartitions().stream()
+                                            .map(partition -> new TopicPartitionOffset(
+                                                    eventsTopic, partition, TopicPartitionOffset.SeekPosition.END))
+                                            .toArray(TopicPartitionOffset[]::new));
+        endpoint.setMessageListener((BatchMessageListener<String, EventMessage>) records ->
+                liveNotificationListener.consume(records.stream().map(ConsumerRecord::value).toList()));
+        registrar.registerEndpoint(endpoint, containerFactory);
+    }
+
+    private List<Integer> getPartitions() {
+        try (Consumer<String, EventMessage> consumer = containerFactory.getConsumerFactory().createConsumer()) {
+            List<PartitionInfo> partitions = consumer.partitionsFor(eventsTopic);
+            if (partitions != null && !partitions.isEmpty()) {
+                return partitions.stream().map(PartitionInfo::partition).toList();
+            }
+        }
+        catch (KafkaException e) {
+            log.warn("Failed to read the partitions of {}", eventsTopic, e);
+        }
+        log.warn("Topic {} has no partitions yet, assuming {}", eventsTopic, eventsTopicPartitions);
+        return IntStream.range(0, eventsTopicPartitions).boxed().toList();
+    }
+}
@@ -0,0 +1,55 @@
+package by.bsuir.growpathserver.notification.config;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.KafkaListenerConfigurer;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistrar;
+import org.springframework.kafka.config.SimpleKafkaListenerEndpoint;
+import org.springframework.kafka.listener.BatchAcknowledgingConsumerAwareMessageListener;
+
+import by.bsuir.growpathserver.common.event.EventMessage;
+import by.bsuir.growpathserver.notification.listener.NotificationListener;
+import by.bsuir.growpathserver.notification.service.EventRetryRouter;
+
+/**
+ * Registers a separate listener container for every retry topic. Records that are not due
+ * yet pause only their own partition, so a long backoff on one retry topic never holds
+ * back due records on another.
+ */
+@Configuration
+public class RetryTopicListenerConfig implements KafkaListenerConfigurer {
+
+    private final NotificationListener notificationListener;
+    private final EventRetryRouter eventRetryRouter;
+    private final ConcurrentKafkaListenerContainerFactory<String, EventMessage> containerFactory;
+
+    @Value("${spring.kafka.consumer.group-id:notification-service-group}")
+    private String groupId;
+
+    public RetryTopicListenerConfig(
+            NotificationListener notificationListener,
+            EventRetryRouter eventRetryRouter,
+            @Qualifier("retryKafkaListenerContainerFactory")
+            ConcurrentKafkaListenerContainerFactory<String, EventMessage> containerFactory) {
+        this.notificationListener = notificationListener;
+        this.eventRetryRouter = eventRetryRouter;
+        this.containerFactory = containerFactory;
+    }
+
+    @Override
+    public void configureKafkaListeners(KafkaListenerEndpointRegistrar registrar) {
+        for (String retryTopic : eventRetryRouter.getRetryTopics()) {
+            String listenerId = NotificationListener.RETRY_LISTENER_ID + "-" + retryTopic;
+            SimpleKafkaListenerEndpoint<String, EventMessage> endpoint = new SimpleKafkaListenerEndpoint<>();
+            endpoint.setId(listenerId);
+            endpoint.setGroupId(groupId);
+            endpoint.setTopics(retryTopic);
+            endpoint.setMessageListener((BatchAcknowledgingConsumerAwareMessageListener<String, EventMessage>)
+                    (records, acknowledgment, consumer) ->
+                            notificationListener.consumeRetry(listenerId, records, consumer));
+            registrar.registerEndpoint(endpoint, containerFactory);
+        }
+    }
+}
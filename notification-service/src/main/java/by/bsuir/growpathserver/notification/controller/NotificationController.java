@@ -1,44 +1,91 @@
 package by.bsuir.growpathserver.notification.controller;
 
-import by.bsuir.growpathserver.common.util.JwtUtils;
+import by.bsuir.growpathserver.common.security.GrowPathPrincipal;
+import by.bsuir.growpathserver.notification.model.InboxPage;
+import by.bsuir.growpathserver.notification.service.DeadLetterReplayService;
+import by.bsuir.growpathserver.notification.service.InboxService;
+import by.bsuir.growpathserver.notification.service.LiveNotificationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.HashMap;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/notification")
+@RequiredArgsConstructor
 public class NotificationController {
 
+    private final DeadLetterReplayService deadLetterReplayService;
+    private final InboxService inboxService;
+    private final LiveNotificationService liveNotificationService;
+
     @GetMapping("/health")
     public ResponseEntity<Map<String, String>> health() {
         return ResponseEntity.ok(Map.of("status", "UP", "service", "notification-service"));
     }
 
     @GetMapping("/profile")
-    public ResponseEntity<Map<String, Object>> getProfile(@AuthenticationPrincipal Jwt jwt) {
+    public ResponseEntity<Map<String, Object>> getProfile(@AuthenticationPrincipal GrowPathPrincipal principal) {
         Map<String, Object> profile = new HashMap<>();
-        profile.put("username", JwtUtils.getUsername(jwt));
-        profile.put("email", JwtUtils.getEmail(jwt));
-        profile.put("roles", JwtUtils.extractRoles(jwt).stream()
-                .map(GrantedAuthority::getAuthority)
-                .toList());
+        profile.put("username", principal.getUsername());
+        profile.put("email", principal.getEmail());
+        profile.put("roles", principal.getAuthorityNames());
         return ResponseEntity.ok(profile);
     }
 
+    @GetMapping("/inbox")
+    public ResponseEntity<InboxPage> getInbox(@AuthenticationPrincipal GrowPathPrincipal principal,
+                                              @RequestParam(required = false) String cursor,
+                                              @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(inboxService.getPage(principal.getSubject(), cursor, limit));
+    }
+
+    @GetMapping("/inbox/unread-count")
+    public ResponseEntity<Map<String, Long>> getUnreadCount(@AuthenticationPrincipal GrowPathPrincipal principal) {
+        return ResponseEntity.ok(Map.of("unreadCount", inboxService.getUnreadCount(principal.getSubject())));
+    }
+
+    @PostMapping("/inbox/{id}/read")
+    public ResponseEntity<Void> markRead(@AuthenticationPrincipal GrowPathPrincipal principal,
+                                         @PathVariable long id) {
+        return inboxService.markRead(principal.getSubject(), id)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    @PostMapping("/inbox/read-all")
+    public ResponseEntity<Map<String, Integer>> markAllRead(@AuthenticationPrincipal GrowPathPrincipal principal) {
+        return ResponseEntity.ok(Map.of("updated", inboxService.markAllRead(principal.getSubject())));
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@AuthenticationPrincipal GrowPathPrincipal principal) {
+        return liveNotificationService.subscribe(principal.getSubject());
+    }
+
     @GetMapping("/admin")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Map<String, String>> adminEndpoint() {
         return ResponseEntity.ok(Map.of("message", "Admin access granted for notifications"));
     }
 
+    @PostMapping("/admin/dlt/replay")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Integer>> replayDeadLetters(
+            @RequestParam(defaultValue = "1000") int maxEvents) {
+        return ResponseEntity.ok(Map.of("replayed", deadLetterReplayService.replay(maxEvents)));
+    }
 
     @GetMapping("/hr")
     @PreAuthorize("hasAnyRole('HR_MANAGER', 'ADMIN')")
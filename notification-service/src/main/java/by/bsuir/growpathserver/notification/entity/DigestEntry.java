@@ -0,0 +1,71 @@
+package by.bsuir.growpathserver.notification.entity;
+
+import java.time.Instant;
+
+import org.hibernate.annotations.ColumnDefault;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Table(name = "digest_entries",
+       indexes = {
+               @Index(name = "idx_digest_entries_recipient_type", columnList = "recipient, event_type, id"),
+               @Index(name = "idx_digest_entries_claim", columnList = "claim")
+       })
+@Getter
+@Setter
+@NoArgsConstructor
+public class DigestEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(name = "event_type", nullable = false, length = 64)
+    private String eventType;
+
+    @Column(nullable = false, length = 1024)
+    private String item;
+
+    @Column(length = 35)
+    private String locale;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    /**
+     * Token of the flush currently sending this entry; {@code null} while it is unclaimed.
+     */
+    @Column(length = 36)
+    private String claim;
+
+    @Column(name = "claimed_at")
+    private Instant claimedAt;
+
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at")
+    private Instant nextAttemptAt;
+
+    public DigestEntry(String recipient, String locale, String eventType, String item, Instant createdAt) {
+        this.recipient = recipient;
+        this.locale = locale;
+        this.eventType = eventType;
+        this.item = item;
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,24 @@
+package by.bsuir.growpathserver.notification.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Table(name = "inbox_counters")
+@Getter
+@Setter
+@NoArgsConstructor
+public class InboxCounter {
+
+    @Id
+    @Column(name = "user_id")
+    private String userId;
+
+    @Column(name = "unread_count", nullable = false)
+    private long unreadCount;
+}
@@ -0,0 +1,69 @@
+package by.bsuir.growpathserver.notification.handler;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.stereotype.Component;
+
+import by.bsuir.growpathserver.common.event.EventMessage;
+import by.bsuir.growpathserver.common.event.EventType;
+import by.bsuir.growpathserver.notification.service.DigestAggregator;
+import by.bsuir.growpathserver.notification.service.NotificationService;
+import lombok.RequiredArgsConstructor;
+
+@Component
+@RequiredArgsConstructor
+public class EmailNotificationHandler implements NotificationHandler {
+
+    private final NotificationService notificationService;
+    private final DigestAggregator digestAggregator;
+
+    @Override
+    public Set<EventType> getEventTypes() {
+        return EnumSet.of(EventType.APPLICATION_CREATED, EventType.TASK_COMPLETED);
+    }
+
+    @Override
+    public NotificationChannel getChannel() {
+        return NotificationChannel.EMAIL;
+    }
+
+    @Override
+    public CompletableFuture<Void> handle(List<EventMessage> events) {
+        Map<String, List<String>> itemsByRecipient = new LinkedHashMap<>();
+        Map<String, Locale> localeByRecipient = new HashMap<>();
+        for (EventMessage event : events) {
+            String recipient = EventPayloads.getRecipientEmail(event);
+            String item = EventPayloads.getItem(event);
+            if (recipient != null && item != null) {
+                itemsByRecipient.computeIfAbsent(recipient, k -> new ArrayList<>()).add(item);
+                Locale locale = EventPayloads.getLocale(event);
+                if (locale != null) {
+                    localeByRecipient.put(recipient, locale);
+                }
+            }
+        }
+        if (itemsByRecipient.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        String eventType = events.get(0).getEventType().name();
+        if (digestAggregator.isDigestEnabled(eventType)) {
+            itemsByRecipient.forEach((recipient, items) -> digestAggregator.add(
+                    recipient, localeByRecipient.get(recipient), eventType, items));
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.allOf(itemsByRecipient.entrySet().stream()
+                                               .map(entry -> notificationService.sendEventEmail(
+                                                       entry.getKey(), localeByRecipient.get(entry.getKey()),
+                                                       eventType, entry.getValue()))
+                                               .toArray(CompletableFuture[]::new));
+    }
+}
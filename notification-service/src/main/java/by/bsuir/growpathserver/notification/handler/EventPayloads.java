@@ -0,0 +1,48 @@
+package by.bsuir.growpathserver.notification.handler;
+
+import java.util.Locale;
+
+import org.springframework.util.StringUtils;
+
+import by.bsuir.growpathserver.common.event.ApplicationCreatedPayload;
+import by.bsuir.growpathserver.common.event.EventMessage;
+import by.bsuir.growpathserver.common.event.TaskCompletedPayload;
+import by.bsuir.growpathserver.common.event.TraineeProfileUpdatedPayload;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class EventPayloads {
+
+    public static String getItem(EventMessage event) {
+        return switch (event.getPayload()) {
+            case ApplicationCreatedPayload payload -> payload.applicationId();
+            case TaskCompletedPayload payload -> payload.taskName();
+            case TraineeProfileUpdatedPayload payload -> payload.traineeId();
+            case null -> null;
+        };
+    }
+
+    /**
+     * Returns the recipient's locale carried by the payload, or {@code null} when the
+     * producer did not send one.
+     */
+    public static Locale getLocale(EventMessage event) {
+        String tag = switch (event.getPayload()) {
+            case ApplicationCreatedPayload payload -> payload.locale();
+            case TaskCompletedPayload payload -> payload.locale();
+            case TraineeProfileUpdatedPayload payload -> null;
+            case null -> null;
+        };
+        return StringUtils.hasText(tag) ? Locale.forLanguageTag(tag) : null;
+    }
+
+    public static String getRecipientEmail(EventMessage event) {
+        return switch (event.getPayload()) {
+            case ApplicationCreatedPayload payload -> payload.email();
+            case TaskCompletedPayload payload -> payload.email();
+            case TraineeProfileUpdatedPayload payload -> null;
+            case null -> null;
+        };
+    }
+}
@@ -0,0 +1,55 @@
+package by.bsuir.growpathserver.notification.handler;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.stereotype.Component;
+
+import by.bsuir.growpathserver.common.event.EventMessage;
+import by.bsuir.growpathserver.common.event.EventType;
+import by.bsuir.growpathserver.notification.service.InboxService;
+import by.bsuir.growpathserver.notification.service.NotificationService;
+import by.bsuir.growpathserver.notification.template.RenderedEmail;
+import lombok.RequiredArgsConstructor;
+
+@Component
+@RequiredArgsConstructor
+public class InAppNotificationHandler implements NotificationHandler {
+
+    private final InboxService inboxService;
+    private final NotificationService notificationService;
+
+    @Override
+    public Set<EventType> getEventTypes() {
+        return EnumSet.of(EventType.APPLICATION_CREATED, EventType.TASK_COMPLETED);
+    }
+
+    @Override
+    public NotificationChannel getChannel() {
+        return NotificationChannel.IN_APP;
+    }
+
+    /**
+     * Stores one inbox notification per event. Events without an id cannot be deduplicated
+     * and would fail the whole insert batch on the non-null {@code event_id}, so they are
+     * skipped along with events that carry nothing to show.
+     */
+    @Override
+    public CompletableFuture<Void> handle(List<EventMessage> events) {
+        return CompletableFuture.allOf(events.stream()
+                                               .filter(event -> event.getUserId() != null
+                                                       && event.getEventId() != null
+                                                       && EventPayloads.getItem(event) != null)
+                                               .map(this::store)
+                                               .toArray(CompletableFuture[]::new));
+    }
+
+    private CompletableFuture<Void> store(EventMessage event) {
+        String eventType = event.getEventType().name();
+        RenderedEmail content = notificationService.renderEvent(eventType, EventPayloads.getLocale(event),
+                                                                List.of(EventPayloads.getItem(event)));
+        return inboxService.add(event.getUserId(), event.getEventId(), eventType, content.subject(), content.text());
+    }
+}
@@ -0,0 +1,6 @@
+package by.bsuir.growpathserver.notification.handler;
+
+public enum NotificationChannel {
+    EMAIL,
+    IN_APP
+}
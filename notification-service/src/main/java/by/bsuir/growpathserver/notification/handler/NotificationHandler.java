@@ -0,0 +1,21 @@
+package by.bsuir.growpathserver.notification.handler;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import by.bsuir.growpathserver.common.event.EventMessage;
+import by.bsuir.growpathserver.common.event.EventType;
+
+public interface NotificationHandler {
+
+    Set<EventType> getEventTypes();
+
+    NotificationChannel getChannel();
+
+    /**
+     * Handles events of one type that belong to the same user. The returned future
+     * completes once the notification has been delivered to the channel.
+     */
+    CompletableFuture<Void> handle(List<EventMessage> events);
+}
@@ -0,0 +1,150 @@
+package by.bsuir.growpathserver.notification.handler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import by.bsuir.growpathserver.common.event.EventMessage;
+import by.bsuir.growpathserver.common.event.EventType;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Dispatches events to every {@link NotificationHandler} registered for their type. The
+ * handlers are resolved into an array indexed by {@link EventType#ordinal()} at startup,
+ * and each handler runs on its own executor with a bounded number of concurrent calls, so
+ * channels are delivered in parallel and a slow channel cannot starve the others. When a
+ * handler is at its limit, {@link #dispatch} blocks the caller for up to
+ * {@code acquire-timeout} and then fails that channel, which routes it to a retry topic.
+ */
+@Slf4j
+@Component
+public class NotificationHandlerRegistry implements DisposableBean {
+
+    private final HandlerSlot[][] slotsByType;
+    private final List<ExecutorService> executors = new ArrayList<>();
+
+    public NotificationHandlerRegistry(List<NotificationHandler> handlers,
+                                       @Value("${notification.handlers.max-concurrency:64}") int maxConcurrency,
+                                       @Value("${notification.handlers.acquire-timeout:30s}")
+                                       Duration acquireTimeout) {
+        List<List<HandlerSlot>> slots = new ArrayList<>();
+        for (int i = 0; i < EventType.values().length; i++) {
+            slots.add(new ArrayList<>());
+        }
+        for (NotificationHandler handler : handlers) {
+            ExecutorService executor = Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name("notify-" + handler.getClass().getSimpleName() + "-", 0).factory());
+            executors.add(executor);
+            HandlerSlot slot = new HandlerSlot(handler, executor, new Semaphore(maxConcurrency),
+                                               acquireTimeout, new AtomicBoolean());
+            for (EventType eventType : handler.getEventTypes()) {
+                slots.get(eventType.ordinal()).add(slot);
+            }
+        }
+
+        this.slotsByType = new HandlerSlot[slots.size()][];
+        for (int i = 0; i < slots.size(); i++) {
+            slotsByType[i] = slots.get(i).toArray(HandlerSlot[]::new);
+        }
+    }
+
+    public boolean hasHandlers(EventType eventType) {
+        return slotsByType[eventType.ordinal()].length > 0;
+    }
+
+    /**
+     * Runs the handlers of the given channels for events of one type and one user. The
+     * returned future never fails; it completes with the failure of each channel that
+     * could not be delivered, or an empty map.
+     */
+    public CompletableFuture<Map<NotificationChannel, Throwable>> dispatch(EventType eventType,
+                                                                           List<EventMessage> events,
+                                                                           Set<NotificationChannel> channels) {
+        HandlerSlot[] slots = slotsByType[eventType.ordinal()];
+        if (slots.length == 0) {
+            log.warn("No notification handlers for event type: {}", eventType);
+            return CompletableFuture.completedFuture(Map.of());
+        }
+
+        Map<NotificationChannel, Throwable> failures = Collections.synchronizedMap(new EnumMap<>(NotificationChannel.class));
+        List<CompletableFuture<?>> results = new ArrayList<>(slots.length);
+        for (HandlerSlot slot : slots) {
+            NotificationChannel channel = slot.handler().getChannel();
+            if (channels.contains(channel)) {
+                results.add(slot.submit(events).whenComplete((ignored, e) -> {
+                    if (e != null) {
+                        failures.put(channel, e);
+                    }
+                }));
+            }
+        }
+        return CompletableFuture.allOf(results.toArray(CompletableFuture[]::new))
+                .handle((ignored, e) -> failures);
+    }
+
+    @Override
+    public void destroy() {
+        executors.forEach(ExecutorService::close);
+    }
+
+    private record HandlerSlot(NotificationHandler handler, ExecutorService executor, Semaphore permits,
+                               Duration acquireTimeout, AtomicBoolean stalled) {
+
+        /**
+         * Takes a permit on the calling thread, so a listener dispatching faster than the
+         * handler completes stops polling instead of piling up parked tasks. Once a wait
+         * times out, later calls fail without waiting until the handler frees a permit.
+         */
+        CompletableFuture<Void> submit(List<EventMessage> events) {
+            try {
+                long timeout = stalled.get() ? 0 : acquireTimeout.toMillis();
+                if (!permits.tryAcquire(timeout, TimeUnit.MILLISECONDS)) {
+                    stalled.set(true);
+                    return CompletableFuture.failedFuture(new RejectedExecutionException(
+                            handler.getChannel() + " handler is saturated"));
+                }
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return CompletableFuture.failedFuture(e);
+            }
+
+            CompletableFuture<Void> result;
+            try {
+                result = CompletableFuture.supplyAsync(() -> {
+                            try {
+                                return handler.handle(events);
+                            }
+                            catch (RuntimeException e) {
+                                return CompletableFuture.<Void>failedFuture(e);
+                            }
+                        }, executor)
+                        .thenCompose(Function.identity());
+            }
+            catch (RejectedExecutionException e) {
+                permits.release();
+                return CompletableFuture.failedFuture(e);
+            }
+            return result.whenComplete((ignored, e) -> {
+                permits.release();
+                stalled.set(false);
+            });
+        }
+    }
+}
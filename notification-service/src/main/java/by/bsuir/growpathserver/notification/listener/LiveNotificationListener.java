@@ -0,0 +1,41 @@
+package by.bsuir.growpathserver.notification.listener;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import by.bsuir.growpathserver.common.event.EventMessage;
+import by.bsuir.growpathserver.notification.handler.NotificationHandlerRegistry;
+import by.bsuir.growpathserver.notification.service.LiveNotificationService;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Feeds the notification streams of this instance. Every partition of the events topic is
+ * assigned manually and read from its end, so each instance sees every event published
+ * while it runs, whichever instance its clients are connected to. No offsets are committed
+ * and no consumer group is joined, so restarts leave nothing behind on the broker. The
+ * container is registered by {@link by.bsuir.growpathserver.notification.config.LiveListenerConfig}.
+ */
+@Component
+@RequiredArgsConstructor
+public class LiveNotificationListener {
+
+    public static final String LISTENER_ID = "growpath-events-live-listener";
+
+    private final NotificationHandlerRegistry handlerRegistry;
+    private final LiveNotificationService liveNotificationService;
+
+    public void consume(List<EventMessage> events) {
+        Map<String, List<EventMessage>> eventsByUser = new LinkedHashMap<>();
+        for (EventMessage event : events) {
+            if (event != null && event.getUserId() != null && event.getEventType() != null
+                    && handlerRegistry.hasHandlers(event.getEventType())) {
+                eventsByUser.computeIfAbsent(event.getUserId(), k -> new ArrayList<>()).add(event);
+            }
+        }
+        eventsByUser.forEach(liveNotificationService::publish);
+    }
+}
@@ -1,12 +1,43 @@
 package by.bsuir.growpathserver.notification.listener;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Component;
 
-import by.bsuir.growpathserver.notification.model.EventMessage;
-import by.bsuir.growpathserver.notification.service.NotificationService;
+import by.bsuir.growpathserver.common.event.EventMessage;
+import by.bsuir.growpathserver.common.event.EventType;
+import by.bsuir.growpathserver.notification.handler.NotificationChannel;
+import by.bsuir.growpathserver.notification.handler.NotificationHandlerRegistry;
+import by.bsuir.growpathserver.notification.service.EventRetryRouter;
+import by.bsuir.growpathserver.notification.service.ProcessedEventLedger;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -15,46 +46,278 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class NotificationListener {
 
-    private final NotificationService notificationService;
-    private static final String TOPIC = "growpath-events";
+    public static final String LISTENER_ID = "growpath-events-listener";
+    public static final String RETRY_LISTENER_ID = "growpath-events-retry-listener";
 
-    @KafkaListener(topics = TOPIC, groupId = "notification-service-group")
-    public void consume(EventMessage event) {
-        log.info("Received event: {} for user: {}", event.getEventType(), event.getUserId());
+    private static final Set<NotificationChannel> ALL_CHANNELS = EnumSet.allOf(NotificationChannel.class);
 
-        switch (event.getEventType()) {
-            case "APPLICATION_CREATED":
-                handleApplicationCreated(event);
-                break;
-            case "TASK_COMPLETED":
-                handleTaskCompleted(event);
-                break;
-            default:
-                log.warn("Unknown event type: {}", event.getEventType());
+    private final NotificationHandlerRegistry handlerRegistry;
+    private final EventRetryRouter eventRetryRouter;
+    private final ProcessedEventLedger processedEventLedger;
+    private final DeadLetterPublishingRecoverer deadLetterPublishingRecoverer;
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+    private final TaskScheduler taskScheduler;
+
+    @Value("${kafka.consumer.batch-timeout:2m}")
+    private Duration batchTimeout;
+
+    @Value("${kafka.retry.send-timeout:30s}")
+    private Duration retrySendTimeout;
+
+    @Value("${kafka.retry.send-failure-backoff:10s}")
+    private Duration sendFailureBackoff;
+
+    /**
+     * Dispatches a batch and acknowledges it only after every group of events has been
+     * delivered or routed to a retry topic, so offsets are never committed ahead of the
+     * notifications they stand for. Groups still running after {@code batch-timeout} are
+     * routed to the retry topic; a late completion is ignored. When a retry topic send
+     * fails, the batch fails at the first affected record and the error handler takes over.
+     * A record that could not be deserialized arrives as {@code null}; the events before it
+     * are delivered and the batch then fails at it, so the error handler dead-letters it.
+     */
+    @KafkaListener(id = LISTENER_ID,
+                   topics = "${kafka.topics.events.name:growpath-events}",
+                   groupId = "${spring.kafka.consumer.group-id:notification-service-group}")
+    public void consume(List<EventMessage> events, Acknowledgment acknowledgment) {
+        log.info("Received batch of {} events", events.size());
+        int undecodableIndex = events.indexOf(null);
+        List<EventMessage> decoded = undecodableIndex < 0 ? events : events.subList(0, undecodableIndex);
+
+        Map<EventGroupKey, List<EventMessage>> groups = new LinkedHashMap<>();
+        for (EventMessage event : processedEventLedger.filterNew(decoded)) {
+            if (event.getEventType() == null) {
+                log.warn("Skipping event {} without type", event.getEventId());
+                continue;
+            }
+            if (!handlerRegistry.hasHandlers(event.getEventType())) {
+                log.debug("Skipping {} event {} without notification handlers", event.getEventType(),
+                          event.getEventId());
+                continue;
+            }
+            groups.computeIfAbsent(new EventGroupKey(event.getEventType(), event.getUserId()),
+                                   k -> new ArrayList<>()).add(event);
+        }
+
+        List<GroupDelivery> deliveries = new ArrayList<>(groups.size());
+        groups.forEach((key, group) -> deliveries.add(deliver(key.eventType(), group)));
+        await(deliveries);
+        failOnUndelivered(decoded, deliveries);
+        if (undecodableIndex >= 0) {
+            throw new BatchListenerFailedException("Event could not be deserialized", undecodableIndex);
+        }
+        acknowledgment.acknowledge();
+    }
+
+    /**
+     * Handles records of one retry topic. Records of a partition are processed in order
+     * until one is not due yet or cannot be routed further; that partition is then rewound
+     * to it and paused until it is due, while other partitions keep being consumed. Records
+     * that could not be deserialized are moved to the dead-letter topic as they are.
+     */
+    public void consumeRetry(String listenerId, List<ConsumerRecord<String, EventMessage>> records,
+                             Consumer<?, ?> consumer) {
+        Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+        Set<TopicPartition> backedOff = new HashSet<>();
+        for (ConsumerRecord<String, EventMessage> record : records) {
+            TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+            if (backedOff.contains(partition)) {
+                continue;
+            }
+
+            long delay = EventRetryRouter.getDueAt(record) - System.currentTimeMillis();
+            if (delay <= 0 && (record.value() != null ? retry(record) : deadLetter(record, consumer))) {
+                offsets.put(partition, new OffsetAndMetadata(record.offset() + 1));
+                continue;
+            }
+            backedOff.add(partition);
+            consumer.seek(partition, record.offset());
+            pausePartition(listenerId, partition, delay > 0 ? Duration.ofMillis(delay) : sendFailureBackoff);
+        }
+        if (!offsets.isEmpty()) {
+            consumer.commitSync(offsets);
+        }
+    }
+
+    private boolean retry(ConsumerRecord<String, EventMessage> record) {
+        EventMessage event = record.value();
+        if (processedEventLedger.isProcessed(event)) {
+            return true;
+        }
+
+        int attempt = EventRetryRouter.getAttempt(record);
+        Set<NotificationChannel> channels = EventRetryRouter.getChannels(record);
+        log.info("Retrying {} event from {} on {}, attempt {}", event.getEventType(), record.topic(), channels,
+                 attempt + 1);
+        CompletableFuture<?> routed;
+        try {
+            Map<NotificationChannel, Throwable> failures = handlerRegistry
+                    .dispatch(event.getEventType(), List.of(event), channels)
+                    .get(retrySendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            if (failures.isEmpty()) {
+                processedEventLedger.markProcessed(List.of(event));
+                return true;
+            }
+            routed = eventRetryRouter.route(event, attempt + 1, unwrap(failures.values().iterator().next()),
+                                            failures.keySet());
+        }
+        catch (ExecutionException e) {
+            routed = eventRetryRouter.route(event, attempt + 1, e.getCause(), channels);
+        }
+        catch (TimeoutException | RuntimeException e) {
+            routed = eventRetryRouter.route(event, attempt + 1, e, channels);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+
+        try {
+            routed.get(retrySendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            return true;
+        }
+        catch (ExecutionException | TimeoutException e) {
+            log.warn("Could not route {} event from {}, retrying in {}", event.getEventType(), record.topic(),
+                     sendFailureBackoff);
+            return false;
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
         }
     }
 
-    private void handleApplicationCreated(EventMessage event) {
-        Map<String, Object> data = event.getData();
-        String email = (String) data.get("email");
-        String subject = "Новая заявка на стажировку";
-        String text = String.format("Здравствуйте! Ваша заявка на стажировку была создана. " +
-                                            "ID заявки: %s", data.get("applicationId"));
+    private boolean deadLetter(ConsumerRecord<String, EventMessage> record, Consumer<?, ?> consumer) {
+        try {
+            deadLetterPublishingRecoverer.accept(record, consumer,
+                                                 new IllegalStateException("Event could not be deserialized"));
+            return true;
+        }
+        catch (RuntimeException e) {
+            log.warn("Could not move undecodable record {}-{}@{} to the dead-letter topic, retrying in {}",
+                     record.topic(), record.partition(), record.offset(), sendFailureBackoff, e);
+            return false;
+        }
+    }
 
-        if (email != null) {
-            notificationService.sendEmail(email, subject, text);
+    private void pausePartition(String listenerId, TopicPartition partition, Duration delay) {
+        MessageListenerContainer container = listenerRegistry.getListenerContainer(listenerId);
+        if (container == null) {
+            return;
         }
+        container.pausePartition(partition);
+        taskScheduler.schedule(() -> container.resumePartition(partition), Instant.now().plus(delay));
     }
 
-    private void handleTaskCompleted(EventMessage event) {
-        Map<String, Object> data = event.getData();
-        String email = (String) data.get("email");
-        String subject = "Задача выполнена";
-        String text = String.format("Здравствуйте! Задача '%s' была выполнена.",
-                                    data.get("taskName"));
+    private GroupDelivery deliver(EventType eventType, List<EventMessage> group) {
+        AtomicBoolean settled = new AtomicBoolean();
+        CompletableFuture<Void> result = handlerRegistry.dispatch(eventType, group, ALL_CHANNELS)
+                .thenCompose(failures -> {
+                    if (!settled.compareAndSet(false, true)) {
+                        return CompletableFuture.completedFuture(null);
+                    }
+                    if (failures.isEmpty()) {
+                        processedEventLedger.markProcessed(group);
+                        return CompletableFuture.completedFuture(null);
+                    }
+                    return route(group, unwrap(failures.values().iterator().next()), failures.keySet());
+                });
+        return new GroupDelivery(group, settled, result);
+    }
 
-        if (email != null) {
-            notificationService.sendEmail(email, subject, text);
+    private void await(List<GroupDelivery> deliveries) {
+        try {
+            awaitAll(deliveries, batchTimeout);
+            return;
         }
+        catch (TimeoutException e) {
+            log.warn("Batch was not delivered within {}, routing unfinished groups to the retry topic", batchTimeout);
+            routeUnsettled(deliveries, e);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            routeUnsettled(deliveries, e);
+            return;
+        }
+
+        try {
+            awaitAll(deliveries, retrySendTimeout);
+        }
+        catch (TimeoutException e) {
+            log.warn("Retry topic sends did not complete within {}", retrySendTimeout);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitAll(List<GroupDelivery> deliveries, Duration timeout)
+            throws TimeoutException, InterruptedException {
+        try {
+            CompletableFuture.allOf(deliveries.stream().map(GroupDelivery::result).toArray(CompletableFuture[]::new))
+                    .get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        catch (ExecutionException e) {
+            // failures are inspected per group by failOnUndelivered
+        }
+    }
+
+    private void routeUnsettled(List<GroupDelivery> deliveries, Throwable cause) {
+        for (int i = 0; i < deliveries.size(); i++) {
+            GroupDelivery delivery = deliveries.get(i);
+            if (delivery.settled().compareAndSet(false, true)) {
+                deliveries.set(i, new GroupDelivery(delivery.events(), delivery.settled(),
+                                                    route(delivery.events(), cause, ALL_CHANNELS)));
+            }
+        }
+    }
+
+    private CompletableFuture<Void> route(List<EventMessage> group, Throwable cause,
+                                          Set<NotificationChannel> channels) {
+        return CompletableFuture.allOf(group.stream()
+                                               .map(event -> eventRetryRouter.route(event, 0, cause, channels))
+                                               .toArray(CompletableFuture[]::new));
+    }
+
+    /**
+     * Throws for the earliest record of a group that was neither delivered nor routed to a
+     * retry topic. The error handler commits the records before it, sends it to the
+     * dead-letter topic and redelivers the rest.
+     */
+    private static void failOnUndelivered(List<EventMessage> events, List<GroupDelivery> deliveries) {
+        Map<EventMessage, Integer> indexes = new IdentityHashMap<>();
+        for (int i = 0; i < events.size(); i++) {
+            indexes.put(events.get(i), i);
+        }
+
+        int failedIndex = Integer.MAX_VALUE;
+        Throwable cause = null;
+        for (GroupDelivery delivery : deliveries) {
+            CompletableFuture<Void> result = delivery.result();
+            if (result.isDone() && !result.isCompletedExceptionally()) {
+                continue;
+            }
+            for (EventMessage event : delivery.events()) {
+                int index = indexes.get(event);
+                if (index < failedIndex) {
+                    failedIndex = index;
+                    cause = result.isDone() ? unwrap(result.exceptionNow()) : null;
+                }
+            }
+        }
+        if (failedIndex != Integer.MAX_VALUE) {
+            throw new BatchListenerFailedException("Event could not be delivered or routed to a retry topic",
+                                                   cause, failedIndex);
+        }
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+
+    private record EventGroupKey(EventType eventType, String userId) {
+    }
+
+    private record GroupDelivery(List<EventMessage> events, AtomicBoolean settled, CompletableFuture<Void> result) {
     }
 }
@@ -0,0 +1,8 @@
+package by.bsuir.growpathserver.notification.model;
+
+public record EmailMessage(String from, String to, String subject, String text, String html) {
+
+    public static EmailMessage plainText(String from, String to, String subject, String text) {
+        return new EmailMessage(from, to, subject, text, null);
+    }
+}
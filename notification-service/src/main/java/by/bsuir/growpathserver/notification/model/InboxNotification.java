@@ -0,0 +1,7 @@
+package by.bsuir.growpathserver.notification.model;
+
+import java.time.Instant;
+
+public record InboxNotification(long id, String eventType, String title, String body, Instant createdAt,
+                                boolean read) {
+}
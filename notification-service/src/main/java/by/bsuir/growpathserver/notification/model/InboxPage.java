@@ -0,0 +1,6 @@
+package by.bsuir.growpathserver.notification.model;
+
+import java.util.List;
+
+public record InboxPage(List<InboxNotification> items, String nextCursor) {
+}
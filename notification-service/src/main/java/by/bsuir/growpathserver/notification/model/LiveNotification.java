@@ -0,0 +1,6 @@
+package by.bsuir.growpathserver.notification.model;
+
+import java.time.Instant;
+
+public record LiveNotification(String eventId, String eventType, String title, String body, Instant createdAt) {
+}
@@ -0,0 +1,59 @@
+package by.bsuir.growpathserver.notification.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import by.bsuir.growpathserver.notification.entity.DigestEntry;
+
+public interface DigestEntryRepository extends JpaRepository<DigestEntry, Long> {
+
+    /**
+     * Claims the entries of one window that are not being sent, so only one instance sends
+     * them. A claim older than {@code staleBefore} is taken over, since its
+     * owner is assumed to have died mid-send.
+     */
+    @Transactional
+    @Modifying
+    @Query("update DigestEntry e set e.claim = :claim, e.claimedAt = :now " +
+            "where e.recipient = :recipient and e.eventType = :eventType " +
+            "and (e.claim is null or e.claimedAt < :staleBefore)")
+    int claim(@Param("recipient") String recipient, @Param("eventType") String eventType,
+              @Param("claim") String claim, @Param("now") Instant now, @Param("staleBefore") Instant staleBefore);
+
+    List<DigestEntry> findByClaimOrderByIdAsc(String claim);
+
+    @Transactional
+    @Modifying
+    @Query("delete from DigestEntry e where e.claim = :claim")
+    int deleteByClaim(@Param("claim") String claim);
+
+    @Transactional
+    @Modifying
+    @Query("update DigestEntry e set e.claim = null, e.claimedAt = null, e.attempts = e.attempts + 1, " +
+            "e.nextAttemptAt = :nextAttemptAt where e.claim = :claim")
+    int releaseFailed(@Param("claim") String claim, @Param("nextAttemptAt") Instant nextAttemptAt);
+
+    @Query("select e.recipient as recipient, e.eventType as eventType, " +
+            "min(e.createdAt) as windowStart, max(e.nextAttemptAt) as nextAttemptAt, count(e) as entryCount " +
+            "from DigestEntry e group by e.recipient, e.eventType")
+    List<DigestWindowView> findOpenWindows();
+
+    interface DigestWindowView {
+
+        String getRecipient();
+
+        String getEventType();
+
+        Instant getWindowStart();
+
+        Instant getNextAttemptAt();
+
+        long getEntryCount();
+    }
+}
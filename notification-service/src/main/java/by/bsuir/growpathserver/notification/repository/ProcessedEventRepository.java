@@ -0,0 +1,16 @@
+package by.bsuir.growpathserver.notification.repository;
+
+import java.util.Collection;
+import java.util.Set;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import by.bsuir.growpathserver.notification.entity.ProcessedEvent;
+
+public interface ProcessedEventRepository extends JpaRepository<ProcessedEvent, String> {
+
+    @Query("select p.eventId from ProcessedEvent p where p.eventId in :eventIds")
+    Set<String> findExistingIds(@Param("eventIds") Collection<String> eventIds);
+}
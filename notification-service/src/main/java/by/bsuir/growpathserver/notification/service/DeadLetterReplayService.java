@@ -0,0 +1,97 @@
+package by.bsuir.growpathserver.notification.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.stereotype.Service;
+
+import by.bsuir.growpathserver.common.event.EventMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Moves events from the dead-letter topic back to the first retry topic, keeping the
+ * channels recorded on the dead letter so channels that already delivered are not run
+ * again. Progress is committed under a dedicated consumer group id once the sends are
+ * acknowledged, so every dead letter is replayed at most once.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DeadLetterReplayService {
+
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(2);
+
+    private final ConsumerFactory<String, EventMessage> consumerFactory;
+    private final EventRetryRouter eventRetryRouter;
+
+    @Value("${kafka.retry.replay-group-id:notification-service-dlt-replay}")
+    private String replayGroupId;
+
+    /**
+     * Replays up to {@code maxEvents} dead letters that were in the topic when the call
+     * started. Partitions are assigned directly and read until the end offsets captured
+     * up front, so an empty poll while the consumer is still fetching does not end the replay.
+     */
+    public synchronized int replay(int maxEvents) {
+        int replayed = 0;
+        Properties properties = new Properties();
+        properties.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        try (Consumer<String, EventMessage> consumer = consumerFactory.createConsumer(replayGroupId, "dlt-replay",
+                                                                                      null, properties)) {
+            List<TopicPartition> partitions = consumer.partitionsFor(eventRetryRouter.getDeadLetterTopic()).stream()
+                    .map(info -> new TopicPartition(info.topic(), info.partition()))
+                    .toList();
+            consumer.assign(partitions);
+            Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+
+            while (replayed < maxEvents && !isAtEnd(consumer, endOffsets)) {
+                ConsumerRecords<String, EventMessage> records = consumer.poll(POLL_TIMEOUT);
+                Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+                List<CompletableFuture<?>> sends = new ArrayList<>(records.count());
+                for (ConsumerRecord<String, EventMessage> record : records) {
+                    if (replayed + sends.size() >= maxEvents) {
+                        break;
+                    }
+                    TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+                    if (record.offset() >= endOffsets.get(partition)) {
+                        continue;
+                    }
+                    if (record.value() == null) {
+                        log.warn("Skipping undecodable dead letter {}-{}@{}", record.topic(), record.partition(),
+                                 record.offset());
+                        offsets.put(partition, new OffsetAndMetadata(record.offset() + 1));
+                        continue;
+                    }
+                    sends.add(eventRetryRouter.route(record.value(), 0, null, EventRetryRouter.getChannels(record)));
+                    offsets.put(partition, new OffsetAndMetadata(record.offset() + 1));
+                }
+                if (offsets.isEmpty()) {
+                    continue;
+                }
+                CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).join();
+                consumer.commitSync(offsets);
+                replayed += sends.size();
+            }
+        }
+        log.info("Replayed {} events from {}", replayed, eventRetryRouter.getDeadLetterTopic());
+        return replayed;
+    }
+
+    private static boolean isAtEnd(Consumer<?, ?> consumer, Map<TopicPartition, Long> endOffsets) {
+        return endOffsets.entrySet().stream().allMatch(entry -> consumer.position(entry.getKey()) >= entry.getValue());
+    }
+}
@@ -0,0 +1,186 @@
+package by.bsuir.growpathserver.notification.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import by.bsuir.growpathserver.notification.entity.DigestEntry;
+import by.bsuir.growpathserver.notification.repository.DigestEntryRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Coalesces high-frequency events into one digest email per recipient and event type.
+ * Every buffered event is stored in {@code digest_entries} before the Kafka offset is
+ * committed, so open windows survive a restart. A window is flushed when it reaches
+ * {@code max-events} or is older than {@code window}; when the number of open windows
+ * reaches {@code max-open-windows} the oldest one is flushed early. The digest is rendered
+ * in the latest locale the recipient's events carried.
+ * <p>
+ * A flush claims its entries in the database before sending, so a window restored by
+ * several instances is still sent once; a claim older than {@code claim-timeout} is taken
+ * over. A failed send releases the claim and retries the window after an exponential
+ * {@code retry-backoff}; after {@code max-attempts} sends the entries are dropped.
+ */
+@Slf4j
+@Service
+public class DigestAggregator {
+
+    private final DigestEntryRepository digestEntryRepository;
+    private final NotificationService notificationService;
+    private final Set<String> eventTypes;
+    private final Duration window;
+    private final int maxEvents;
+    private final int maxOpenWindows;
+    private final Duration claimTimeout;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final Map<DigestKey, DigestWindow> openWindows = new ConcurrentHashMap<>();
+
+    public DigestAggregator(
+            DigestEntryRepository digestEntryRepository,
+            NotificationService notificationService,
+            @Value("${notification.digest.event-types:TASK_COMPLETED}") Set<String> eventTypes,
+            @Value("${notification.digest.window:1h}") Duration window,
+            @Value("${notification.digest.max-events:20}") int maxEvents,
+            @Value("${notification.digest.max-open-windows:10000}") int maxOpenWindows,
+            @Value("${notification.digest.claim-timeout:10m}") Duration claimTimeout,
+            @Value("${notification.digest.max-attempts:5}") int maxAttempts,
+            @Value("${notification.digest.retry-backoff:5m}") Duration retryBackoff) {
+        this.digestEntryRepository = digestEntryRepository;
+        this.notificationService = notificationService;
+        this.eventTypes = eventTypes;
+        this.window = window;
+        this.maxEvents = maxEvents;
+        this.maxOpenWindows = maxOpenWindows;
+        this.claimTimeout = claimTimeout;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+    }
+
+    public boolean isDigestEnabled(String eventType) {
+        return eventTypes.contains(eventType);
+    }
+
+    public void add(String recipient, Locale locale, String eventType, List<String> items) {
+        Instant now = Instant.now();
+        String languageTag = locale != null ? locale.toLanguageTag() : null;
+        digestEntryRepository.saveAll(items.stream()
+                                              .map(item -> new DigestEntry(recipient, languageTag, eventType, item,
+                                                                           now))
+                                              .toList());
+
+        DigestKey key = new DigestKey(recipient, eventType);
+        if (!openWindows.containsKey(key) && openWindows.size() >= maxOpenWindows) {
+            openWindows.entrySet().stream()
+                    .min(Comparator.comparing(entry -> entry.getValue().start()))
+                    .ifPresent(oldest -> flush(oldest.getKey()));
+        }
+
+        DigestWindow updated = openWindows.merge(key, new DigestWindow(now, items.size()),
+                                                 (current, added) -> new DigestWindow(current.start(),
+                                                                                      current.count() + added.count()));
+        if (updated.count() >= maxEvents) {
+            flush(key);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notification.digest.flush-interval:30s}")
+    public void flushExpiredWindows() {
+        Instant threshold = Instant.now().minus(window);
+        openWindows.forEach((key, digestWindow) -> {
+            if (!digestWindow.start().isAfter(threshold)) {
+                flush(key);
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void restoreOpenWindows() {
+        digestEntryRepository.findOpenWindows().forEach(view -> openWindows.merge(
+                new DigestKey(view.getRecipient(), view.getEventType()),
+                new DigestWindow(getRestoredStart(view), (int) view.getEntryCount()),
+                (current, restored) -> new DigestWindow(restored.start(), current.count() + restored.count())));
+        if (!openWindows.isEmpty()) {
+            log.info("Restored {} open digest windows", openWindows.size());
+        }
+    }
+
+    private void flush(DigestKey key) {
+        if (openWindows.remove(key) == null) {
+            return;
+        }
+
+        String claim = UUID.randomUUID().toString();
+        Instant now = Instant.now();
+        if (digestEntryRepository.claim(key.recipient(), key.eventType(), claim, now, now.minus(claimTimeout)) == 0) {
+            return;
+        }
+        List<DigestEntry> entries = digestEntryRepository.findByClaimOrderByIdAsc(claim);
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        List<String> items = entries.stream().map(DigestEntry::getItem).toList();
+        Locale locale = entries.reversed().stream()
+                .map(DigestEntry::getLocale)
+                .filter(Objects::nonNull)
+                .findFirst()
+                .map(Locale::forLanguageTag)
+                .orElse(null);
+        send(key, locale, items).whenComplete((result, e) -> {
+            if (e == null) {
+                digestEntryRepository.deleteByClaim(claim);
+                return;
+            }
+
+            int attempts = entries.stream().mapToInt(DigestEntry::getAttempts).max().orElse(0) + 1;
+            if (attempts >= maxAttempts) {
+                log.error("Failed to send {} digest to {} after {} attempts, dropping {} entries", key.eventType(),
+                          key.recipient(), attempts, entries.size(), e);
+                digestEntryRepository.deleteByClaim(claim);
+                return;
+            }
+
+            Instant nextAttemptAt = Instant.now().plus(retryBackoff.multipliedBy(1L << (attempts - 1)));
+            log.warn("Failed to send {} digest to {}, retrying {} entries at {}", key.eventType(), key.recipient(),
+                     entries.size(), nextAttemptAt, e);
+            digestEntryRepository.releaseFailed(claim, nextAttemptAt);
+            openWindows.merge(key, new DigestWindow(nextAttemptAt.minus(window), entries.size()),
+                              (current, failed) -> new DigestWindow(failed.start(), current.count() + failed.count()));
+        });
+    }
+
+    private CompletableFuture<Void> send(DigestKey key, Locale locale, List<String> items) {
+        try {
+            return notificationService.sendEventEmail(key.recipient(), locale, key.eventType(), items);
+        }
+        catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private Instant getRestoredStart(DigestEntryRepository.DigestWindowView view) {
+        Instant retryStart = view.getNextAttemptAt() != null ? view.getNextAttemptAt().minus(window) : null;
+        return retryStart != null && retryStart.isAfter(view.getWindowStart()) ? retryStart : view.getWindowStart();
+    }
+
+    private record DigestKey(String recipient, String eventType) {
+    }
+
+    private record DigestWindow(Instant start, int count) {
+    }
+}
@@ -0,0 +1,132 @@
+package by.bsuir.growpathserver.notification.service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import by.bsuir.growpathserver.common.event.EventMessage;
+import by.bsuir.growpathserver.notification.handler.NotificationChannel;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Routes events whose notification failed to the non-blocking retry topics
+ * {@code <events>-retry-0 .. <events>-retry-(N-1)} and finally to {@code <events>-dlt}.
+ * Each hop carries the attempt number and the time it becomes due, which grows
+ * exponentially with the attempt.
+ */
+@Slf4j
+@Service
+public class EventRetryRouter {
+
+    public static final String ATTEMPT_HEADER = "growpath-retry-attempt";
+    public static final String DUE_AT_HEADER = "growpath-retry-due-at";
+    public static final String EXCEPTION_HEADER = "growpath-retry-exception";
+    public static final String CHANNELS_HEADER = "growpath-retry-channels";
+
+    private final KafkaTemplate<String, EventMessage> kafkaTemplate;
+    private final String eventsTopic;
+    private final int maxAttempts;
+    private final Duration initialInterval;
+    private final double multiplier;
+    private final Duration maxInterval;
+
+    public EventRetryRouter(
+            KafkaTemplate<String, EventMessage> kafkaTemplate,
+            @Value("${kafka.topics.events.name:growpath-events}") String eventsTopic,
+            @Value("${kafka.retry.attempts:3}") int maxAttempts,
+            @Value("${kafka.retry.initial-interval:10s}") Duration initialInterval,
+            @Value("${kafka.retry.multiplier:3.0}") double multiplier,
+            @Value("${kafka.retry.max-interval:10m}") Duration maxInterval) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.eventsTopic = eventsTopic;
+        this.maxAttempts = maxAttempts;
+        this.initialInterval = initialInterval;
+        this.multiplier = multiplier;
+        this.maxInterval = maxInterval;
+    }
+
+    public String[] getRetryTopics() {
+        return IntStream.range(0, maxAttempts).mapToObj(this::getRetryTopic).toArray(String[]::new);
+    }
+
+    public String getRetryTopic(int attempt) {
+        return eventsTopic + "-retry-" + attempt;
+    }
+
+    public String getDeadLetterTopic() {
+        return eventsTopic + "-dlt";
+    }
+
+    /**
+     * Sends the event to the next retry topic, or to the dead-letter topic once the attempts
+     * are exhausted. The returned future fails when the send fails, so the caller can keep
+     * the source offset uncommitted.
+     */
+    public CompletableFuture<?> route(EventMessage event, int attempt, Throwable cause,
+                                      Set<NotificationChannel> channels) {
+        ProducerRecord<String, EventMessage> record;
+        if (attempt < maxAttempts) {
+            long dueAt = System.currentTimeMillis() + getBackoff(attempt).toMillis();
+            record = new ProducerRecord<>(getRetryTopic(attempt), event.getUserId(), event);
+            record.headers().add(ATTEMPT_HEADER, ByteBuffer.allocate(Integer.BYTES).putInt(attempt).array());
+            record.headers().add(DUE_AT_HEADER, ByteBuffer.allocate(Long.BYTES).putLong(dueAt).array());
+        }
+        else {
+            record = new ProducerRecord<>(getDeadLetterTopic(), event.getUserId(), event);
+        }
+        record.headers().add(CHANNELS_HEADER, channels.stream()
+                .map(NotificationChannel::name)
+                .collect(Collectors.joining(","))
+                .getBytes(StandardCharsets.UTF_8));
+        if (cause != null) {
+            record.headers().add(EXCEPTION_HEADER, String.valueOf(cause.getMessage()).getBytes(StandardCharsets.UTF_8));
+        }
+
+        log.warn("Routing {} event to {} after failure: {}", event.getEventType(), record.topic(),
+                 cause != null ? cause.getMessage() : null);
+        return kafkaTemplate.send(record).whenComplete((result, e) -> {
+            if (e != null) {
+                log.error("Failed to route {} event to {}", event.getEventType(), record.topic(), e);
+            }
+        });
+    }
+
+    public static int getAttempt(ConsumerRecord<?, ?> record) {
+        Header header = record.headers().lastHeader(ATTEMPT_HEADER);
+        return header != null ? ByteBuffer.wrap(header.value()).getInt() : 0;
+    }
+
+    public static Set<NotificationChannel> getChannels(ConsumerRecord<?, ?> record) {
+        Header header = record.headers().lastHeader(CHANNELS_HEADER);
+        if (header == null || header.value().length == 0) {
+            return EnumSet.allOf(NotificationChannel.class);
+        }
+        Set<NotificationChannel> channels = EnumSet.noneOf(NotificationChannel.class);
+        for (String channel : new String(header.value(), StandardCharsets.UTF_8).split(",")) {
+            channels.add(NotificationChannel.valueOf(channel));
+        }
+        return channels;
+    }
+
+    public static long getDueAt(ConsumerRecord<?, ?> record) {
+        Header header = record.headers().lastHeader(DUE_AT_HEADER);
+        return header != null ? ByteBuffer.wrap(header.value()).getLong() : 0L;
+    }
+
+    private Duration getBackoff(int attempt) {
+        long millis = (long) (initialInterval.toMillis() * Math.pow(multiplier, attempt));
+        return millis > maxInterval.toMillis() ? maxInterval : Duration.ofMillis(millis);
+    }
+}
@@ -0,0 +1,243 @@
+package by.bsuir.growpathserver.notification.service;
+
+import java.nio.ByteBuffer;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import by.bsuir.growpathserver.notification.model.InboxNotification;
+import by.bsuir.growpathserver.notification.model.InboxPage;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-app inbox backed by {@code in_app_notifications}. New notifications are queued and
+ * written in JDBC batches together with the per-user unread counters in
+ * {@code inbox_counters}, so the unread count is a primary-key lookup, further cached in
+ * memory. Pages are read with a keyset cursor on {@code (created_at, id)} within a user.
+ */
+@Slf4j
+@Service
+public class InboxService implements DisposableBean {
+
+    private static final String INSERT_SQL = "INSERT INTO in_app_notifications " +
+            "(user_id, event_id, event_type, title, body, created_at) VALUES (?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (event_id, user_id) DO NOTHING";
+    private static final String INCREMENT_COUNTER_SQL = "INSERT INTO inbox_counters (user_id, unread_count) " +
+            "VALUES (?, ?) ON CONFLICT (user_id) DO UPDATE " +
+            "SET unread_count = inbox_counters.unread_count + EXCLUDED.unread_count";
+    private static final String DECREMENT_COUNTER_SQL = "UPDATE inbox_counters " +
+            "SET unread_count = GREATEST(unread_count - ?, 0) WHERE user_id = ?";
+    private static final String SELECT_COLUMNS = "SELECT id, event_type, title, body, created_at, read_at " +
+            "FROM in_app_notifications WHERE user_id = ? ";
+    private static final String FIRST_PAGE_SQL = SELECT_COLUMNS +
+            "ORDER BY created_at DESC, id DESC LIMIT ?";
+    private static final String NEXT_PAGE_SQL = SELECT_COLUMNS +
+            "AND (created_at, id) < (?, ?) ORDER BY created_at DESC, id DESC LIMIT ?";
+    private static final String UNREAD_COUNT_SQL = "SELECT unread_count FROM inbox_counters WHERE user_id = ?";
+    private static final String MARK_READ_SQL = "UPDATE in_app_notifications SET read_at = ? " +
+            "WHERE id = ? AND user_id = ? AND read_at IS NULL";
+    private static final String MARK_ALL_READ_SQL = "UPDATE in_app_notifications SET read_at = ? " +
+            "WHERE user_id = ? AND read_at IS NULL";
+    private static final String RESET_COUNTER_SQL = "UPDATE inbox_counters SET unread_count = " +
+            "(SELECT count(*) FROM in_app_notifications WHERE user_id = ? AND read_at IS NULL) WHERE user_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ConcurrentLinkedQueue<PendingNotification> pending = new ConcurrentLinkedQueue<>();
+    private final Cache<String, Long> unreadCounts;
+    private final int batchSize;
+    private final int maxPageSize;
+
+    public InboxService(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${notification.inbox.batch-size:500}") int batchSize,
+            @Value("${notification.inbox.max-page-size:100}") int maxPageSize,
+            @Value("${notification.inbox.unread-cache-size:50000}") long unreadCacheSize,
+            @Value("${notification.inbox.unread-cache-ttl:30s}") Duration unreadCacheTtl) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxPageSize = maxPageSize;
+        this.unreadCounts = Caffeine.newBuilder()
+                .maximumSize(unreadCacheSize)
+                .expireAfterWrite(unreadCacheTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, unreadCounts, "notification.inbox.unread");
+    }
+
+    public CompletableFuture<Void> add(String userId, String eventId, String eventType, String title, String body) {
+        if (userId == null || eventId == null) {
+            return CompletableFuture.failedFuture(
+                    new IllegalArgumentException("In-app notification requires a user id and an event id"));
+        }
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        pending.add(new PendingNotification(userId, eventId, eventType, title, body, Instant.now(), future));
+        if (pending.size() >= batchSize) {
+            flush();
+        }
+        return future;
+    }
+
+    @Scheduled(fixedDelayString = "${notification.inbox.flush-interval:100ms}")
+    public synchronized void flush() {
+        List<PendingNotification> batch = new ArrayList<>(batchSize);
+        PendingNotification notification;
+        while ((notification = pending.poll()) != null) {
+            batch.add(notification);
+            if (batch.size() == batchSize) {
+                write(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    public InboxPage getPage(String userId, String cursor, int limit) {
+        int pageSize = Math.clamp(limit, 1, maxPageSize);
+        List<InboxNotification> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = jdbcTemplate.query(FIRST_PAGE_SQL, InboxService::mapNotification, userId, pageSize + 1);
+        }
+        else {
+            Cursor position = Cursor.decode(cursor);
+            rows = jdbcTemplate.query(NEXT_PAGE_SQL, InboxService::mapNotification, userId,
+                                      Timestamp.from(position.createdAt()), position.id(), pageSize + 1);
+        }
+
+        if (rows.size() <= pageSize) {
+            return new InboxPage(rows, null);
+        }
+        List<InboxNotification> page = rows.subList(0, pageSize);
+        InboxNotification last = page.get(pageSize - 1);
+        return new InboxPage(List.copyOf(page), new Cursor(last.createdAt(), last.id()).encode());
+    }
+
+    public long getUnreadCount(String userId) {
+        return unreadCounts.get(userId, id -> jdbcTemplate.query(UNREAD_COUNT_SQL,
+                                                                  rs -> rs.next() ? rs.getLong(1) : 0L, id));
+    }
+
+    public boolean markRead(String userId, long notificationId) {
+        Boolean updated = transactionTemplate.execute(status -> {
+            if (jdbcTemplate.update(MARK_READ_SQL, Timestamp.from(Instant.now()), notificationId, userId) == 0) {
+                return false;
+            }
+            jdbcTemplate.update(DECREMENT_COUNTER_SQL, 1, userId);
+            return true;
+        });
+        unreadCounts.invalidate(userId);
+        return Boolean.TRUE.equals(updated);
+    }
+
+    public int markAllRead(String userId) {
+        Integer updated = transactionTemplate.execute(status -> {
+            int rows = jdbcTemplate.update(MARK_ALL_READ_SQL, Timestamp.from(Instant.now()), userId);
+            jdbcTemplate.update(RESET_COUNTER_SQL, userId, userId);
+            return rows;
+        });
+        unreadCounts.invalidate(userId);
+        return updated != null ? updated : 0;
+    }
+
+    @Override
+    public void destroy() {
+        flush();
+    }
+
+    private void write(List<PendingNotification> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                int[][] results = jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, notification) -> {
+                    ps.setString(1, notification.userId());
+                    ps.setString(2, notification.eventId());
+                    ps.setString(3, notification.eventType());
+                    ps.setString(4, notification.title());
+                    ps.setString(5, notification.body());
+                    ps.setTimestamp(6, Timestamp.from(notification.createdAt()));
+                });
+
+                Map<String, Long> inserted = new HashMap<>();
+                int index = 0;
+                for (int[] chunk : results) {
+                    for (int count : chunk) {
+                        if (count != 0) {
+                            inserted.merge(batch.get(index).userId(), 1L, Long::sum);
+                        }
+                        index++;
+                    }
+                }
+                jdbcTemplate.batchUpdate(INCREMENT_COUNTER_SQL, inserted.entrySet().stream()
+                        .map(entry -> new Object[]{entry.getKey(), entry.getValue()})
+                        .toList());
+                inserted.keySet().forEach(unreadCounts::invalidate);
+            });
+            batch.forEach(notification -> notification.future().complete(null));
+        }
+        catch (RuntimeException e) {
+            log.error("Failed to store {} in-app notifications", batch.size(), e);
+            batch.forEach(notification -> notification.future().completeExceptionally(e));
+        }
+    }
+
+    private static InboxNotification mapNotification(ResultSet rs, int rowNum) throws SQLException {
+        return new InboxNotification(rs.getLong("id"),
+                                     rs.getString("event_type"),
+                                     rs.getString("title"),
+                                     rs.getString("body"),
+                                     rs.getTimestamp("created_at").toInstant(),
+                                     rs.getTimestamp("read_at") != null);
+    }
+
+    private record PendingNotification(String userId, String eventId, String eventType, String title, String body,
+                                       Instant createdAt, CompletableFuture<Void> future) {
+    }
+
+    record Cursor(Instant createdAt, long id) {
+
+        String encode() {
+            ByteBuffer buffer = ByteBuffer.allocate(3 * Long.BYTES)
+                    .putLong(createdAt.getEpochSecond())
+                    .putLong(createdAt.getNano())
+                    .putLong(id);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+        }
+
+        static Cursor decode(String value) {
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(Base64.getUrlDecoder().decode(value));
+                return new Cursor(Instant.ofEpochSecond(buffer.getLong(), buffer.getLong()), buffer.getLong());
+            }
+            catch (RuntimeException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+            }
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package by.bsuir.growpathserver.notification.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import by.bsuir.growpathserver.common.event.EventMessage;
+import by.bsuir.growpathserver.notification.handler.EventPayloads;
+import by.bsuir.growpathserver.notification.model.LiveNotification;
+import by.bsuir.growpathserver.notification.template.RenderedEmail;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Pushes notifications to connected clients over Server-Sent Events. Events arrive from
+ * {@link by.bsuir.growpathserver.notification.listener.LiveNotificationListener}, which reads
+ * the whole topic on every instance, so a client gets its events whichever instance holds
+ * its stream. Subscribers are kept per user in concurrent sets, so publishing never blocks
+ * the Kafka listener: each event is appended to the subscriber's bounded queue and written
+ * by a virtual thread. A subscriber whose queue overflows is disconnected and is expected
+ * to reconnect and catch up from the inbox. Idle connections are kept open and checked with periodic heartbeats.
+ */
+@Slf4j
+@Service
+public class LiveNotificationService implements DisposableBean {
+
+    private static final String NOTIFICATION_EVENT = "notification";
+    private static final String UNREAD_COUNT_EVENT = "unread-count";
+
+    private final InboxService inboxService;
+    private final NotificationService notificationService;
+    private final ConcurrentMap<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Duration emitterTimeout;
+    private final int maxPendingEvents;
+    private final int maxSubscriptionsPerUser;
+    private final Counter droppedCounter;
+
+    public LiveNotificationService(
+            InboxService inboxService,
+            NotificationService notificationService,
+            MeterRegistry meterRegistry,
+            @Value("${notification.stream.timeout:30m}") Duration emitterTimeout,
+            @Value("${notification.stream.max-pending-events:256}") int maxPendingEvents,
+            @Value("${notification.stream.max-subscriptions-per-user:5}") int maxSubscriptionsPerUser) {
+        this.inboxService = inboxService;
+        this.notificationService = notificationService;
+        this.emitterTimeout = emitterTimeout;
+        this.maxPendingEvents = maxPendingEvents;
+        this.maxSubscriptionsPerUser = maxSubscriptionsPerUser;
+
+        Gauge.builder("notification.stream.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open notification streams")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("notification.stream.dropped")
+                .description("Streams closed because the client could not keep up")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(String userId) {
+        Subscriber subscriber = new Subscriber(userId, new SseEmitter(emitterTimeout.toMillis()));
+        boolean added = subscribers.compute(userId, (key, current) -> {
+            Set<Subscriber> userSubscribers = current != null ? current : ConcurrentHashMap.newKeySet();
+            if (userSubscribers.size() < maxSubscriptionsPerUser) {
+                userSubscribers.add(subscriber);
+            }
+            return userSubscribers;
+        }).contains(subscriber);
+        if (!added) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many open notification streams");
+        }
+        subscriberCount.incrementAndGet();
+
+        SseEmitter emitter = subscriber.emitter;
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+
+        subscriber.offer(SseEmitter.event()
+                                 .name(UNREAD_COUNT_EVENT)
+                                 .data(Map.of("unreadCount", inboxService.getUnreadCount(userId)),
+                                       MediaType.APPLICATION_JSON));
+        return emitter;
+    }
+
+    public void publish(String userId, List<EventMessage> events) {
+        Set<Subscriber> userSubscribers = subscribers.get(userId);
+        if (userSubscribers == null || userSubscribers.isEmpty()) {
+            return;
+        }
+
+        for (EventMessage event : events) {
+            if (event.getEventId() == null || EventPayloads.getItem(event) == null) {
+                continue;
+            }
+            LiveNotification notification;
+            try {
+                notification = toLiveNotification(event);
+            }
+            catch (RuntimeException e) {
+                log.warn("Failed to render live notification for event {}", event.getEventId(), e);
+                continue;
+            }
+            for (Subscriber subscriber : userSubscribers) {
+                subscriber.offer(SseEmitter.event()
+                                         .id(event.getEventId())
+                                         .name(NOTIFICATION_EVENT)
+                                         .data(notification, MediaType.APPLICATION_JSON));
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notification.stream.heartbeat-interval:15s}")
+    public void sendHeartbeats() {
+        for (Set<Subscriber> userSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : userSubscribers) {
+                if (subscriber.pendingCount.get() == 0) {
+                    subscriber.offer(SseEmitter.event().comment("heartbeat"));
+                }
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        subscribers.values().forEach(userSubscribers -> userSubscribers.forEach(Subscriber::complete));
+        executor.shutdownNow();
+    }
+
+    private LiveNotification toLiveNotification(EventMessage event) {
+        String eventType = event.getEventType().name();
+        RenderedEmail content = notificationService.renderEvent(eventType, EventPayloads.getLocale(event),
+                                                                List.of(EventPayloads.getItem(event)));
+        Instant createdAt = event.getTimestamp() != null ? event.getTimestamp() : Instant.now();
+        return new LiveNotification(event.getEventId(), eventType, content.subject(), content.text(), createdAt);
+    }
+
+    private void remove(Subscriber subscriber) {
+        if (!subscriber.closed.compareAndSet(false, true)) {
+            return;
+        }
+        subscriberCount.decrementAndGet();
+        subscribers.computeIfPresent(subscriber.userId, (key, userSubscribers) -> {
+            userSubscribers.remove(subscriber);
+            return userSubscribers.isEmpty() ? null : userSubscribers;
+        });
+    }
+
+    private final class Subscriber {
+
+        private final String userId;
+        private final SseEmitter emitter;
+        private final ConcurrentLinkedQueue<SseEmitter.SseEventBuilder> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pendingCount = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscriber(String userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        private void offer(SseEmitter.SseEventBuilder event) {
+            if (closed.get()) {
+                return;
+            }
+            if (pendingCount.incrementAndGet() > maxPendingEvents) {
+                log.warn("Notification stream of user {} is too slow, disconnecting", userId);
+                droppedCounter.increment();
+                complete();
+                return;
+            }
+            pending.add(event);
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while (!closed.get() && (event = pending.poll()) != null) {
+                    pendingCount.decrementAndGet();
+                    emitter.send(event);
+                }
+            }
+            catch (IOException | IllegalStateException e) {
+                log.debug("Notification stream of user {} closed: {}", userId, e.getMessage());
+                remove(this);
+                emitter.completeWithError(e);
+            }
+            finally {
+                draining.set(false);
+            }
+            if (!closed.get() && !pending.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        private void complete() {
+            remove(this);
+            emitter.complete();
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package by.bsuir.growpathserver.notification.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+
+import by.bsuir.growpathserver.notification.listener.NotificationListener;
+import by.bsuir.growpathserver.notification.model.EmailMessage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sends emails off the Kafka listener threads. Messages are queued in a bounded queue and
+ * drained by virtual-thread workers, each of which sends up to {@code max-messages-per-connection}
+ * messages over a single SMTP connection. When the queue reaches the pause threshold the
+ * events listener container is paused, and it is resumed once workers drain the queue below
+ * the resume threshold.
+ * <p>
+ * The events listener acknowledges a batch only after the futures of its emails complete,
+ * and this engine stops after the listener containers and drains the queue for up to
+ * {@code shutdown-timeout}, so a queued email is never backed by a committed offset alone.
+ * The remaining window is a hard kill between the SMTP send and the processed-event
+ * ledger write: the batch is redelivered and those emails are sent twice, not lost.
+ */
+@Slf4j
+@Component
+public class MailSendEngine implements SmartLifecycle {
+
+    private final JavaMailSender mailSender;
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+    private final BlockingQueue<PendingEmail> queue;
+    private final int workers;
+    private final int maxMessagesPerConnection;
+    private final int pauseThreshold;
+    private final int resumeThreshold;
+    private final long offerTimeoutMillis;
+    private final Duration shutdownTimeout;
+    private final AtomicBoolean listenerPaused = new AtomicBoolean();
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+
+    private volatile boolean running;
+    private ExecutorService executor;
+
+    public MailSendEngine(
+            JavaMailSender mailSender,
+            KafkaListenerEndpointRegistry listenerRegistry,
+            MeterRegistry meterRegistry,
+            @Value("${notification.mail.queue-capacity:10000}") int queueCapacity,
+            @Value("${notification.mail.workers:4}") int workers,
+            @Value("${notification.mail.max-messages-per-connection:50}") int maxMessagesPerConnection,
+            @Value("${notification.mail.pause-threshold:8000}") int pauseThreshold,
+            @Value("${notification.mail.resume-threshold:2000}") int resumeThreshold,
+            @Value("${notification.mail.offer-timeout-ms:30000}") long offerTimeoutMillis,
+            @Value("${notification.mail.shutdown-timeout:30s}") Duration shutdownTimeout) {
+        this.mailSender = mailSender;
+        this.listenerRegistry = listenerRegistry;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.workers = workers;
+        this.maxMessagesPerConnection = maxMessagesPerConnection;
+        this.pauseThreshold = pauseThreshold;
+        this.resumeThreshold = resumeThreshold;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.shutdownTimeout = shutdownTimeout;
+
+        Gauge.builder("notification.mail.queue.size", queue, BlockingQueue::size)
+                .description("Emails waiting to be sent")
+                .register(meterRegistry);
+        this.sentCounter = Counter.builder("notification.mail.sent").register(meterRegistry);
+        this.failedCounter = Counter.builder("notification.mail.failed").register(meterRegistry);
+    }
+
+    public CompletableFuture<Void> submit(EmailMessage email) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        try {
+            if (!queue.offer(new PendingEmail(email, future), offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                future.completeExceptionally(new RejectedExecutionException("Mail queue is full"));
+                return future;
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.completeExceptionally(e);
+            return future;
+        }
+
+        if (queue.size() >= pauseThreshold && listenerPaused.compareAndSet(false, true)) {
+            log.warn("Mail queue reached {} messages, pausing event consumption", queue.size());
+            MessageListenerContainer container = getListenerContainer();
+            if (container != null) {
+                container.pause();
+            }
+        }
+        return future;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("mail-sender-", 0).factory());
+        for (int i = 0; i < workers; i++) {
+            executor.submit(this::runWorker);
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("Mail queue was not drained within {}, {} emails left unsent", shutdownTimeout, queue.size());
+                executor.shutdownNow();
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stops after the listener containers, which run in a later phase, so no batch is
+     * still waiting for emails that are no longer being sent.
+     */
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE - 200;
+    }
+
+    private void runWorker() {
+        List<PendingEmail> batch = new ArrayList<>(maxMessagesPerConnection);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingEmail first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxMessagesPerConnection - 1);
+                send(batch);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            catch (RuntimeException e) {
+                log.error("Unexpected error in mail worker", e);
+            }
+            finally {
+                batch.clear();
+                resumeListenerIfDrained();
+            }
+        }
+    }
+
+    private void send(List<PendingEmail> batch) {
+        Map<MimeMessage, PendingEmail> messages = new IdentityHashMap<>();
+        for (PendingEmail pending : batch) {
+            try {
+                messages.put(createMimeMessage(pending.email()), pending);
+            }
+            catch (MessagingException e) {
+                fail(pending, e);
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        try {
+            mailSender.send(messages.keySet().toArray(MimeMessage[]::new));
+            messages.values().forEach(this::succeed);
+        }
+        catch (MailSendException e) {
+            Map<Object, Exception> failedMessages = e.getFailedMessages();
+            messages.forEach((message, pending) -> {
+                Exception failure = failedMessages.get(message);
+                if (failure != null) {
+                    fail(pending, failure);
+                }
+                else if (failedMessages.isEmpty()) {
+                    fail(pending, e);
+                }
+                else {
+                    succeed(pending);
+                }
+            });
+        }
+        catch (RuntimeException e) {
+            messages.values().forEach(pending -> fail(pending, e));
+        }
+    }
+
+    private MimeMessage createMimeMessage(EmailMessage email) throws MessagingException {
+        MimeMessage mimeMessage = mailSender.createMimeMessage();
+        boolean multipart = email.html() != null;
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, multipart, StandardCharsets.UTF_8.name());
+        helper.setFrom(email.from());
+        helper.setTo(email.to());
+        helper.setSubject(email.subject());
+        if (multipart) {
+            helper.setText(email.text(), email.html());
+        }
+        else {
+            helper.setText(email.text());
+        }
+        return mimeMessage;
+    }
+
+    private void succeed(PendingEmail pending) {
+        sentCounter.increment();
+        log.info("Email sent successfully to: {}", pending.email().to());
+        pending.future().complete(null);
+    }
+
+    private void fail(PendingEmail pending, Exception e) {
+        failedCounter.increment();
+        log.error("Failed to send email to: {}", pending.email().to(), e);
+        pending.future().completeExceptionally(e);
+    }
+
+    private void resumeListenerIfDrained() {
+        if (queue.size() <= resumeThreshold && listenerPaused.compareAndSet(true, false)) {
+            log.info("Mail queue drained to {} messages, resuming event consumption", queue.size());
+            MessageListenerContainer container = getListenerContainer();
+            if (container != null) {
+                container.resume();
+            }
+        }
+    }
+
+    private MessageListenerContainer getListenerContainer() {
+        return listenerRegistry.getListenerContainer(NotificationListener.LISTENER_ID);
+    }
+
+    private record PendingEmail(EmailMessage email, CompletableFuture<Void> future) {
+    }
+}
@@ -1,35 +1,54 @@
 package by.bsuir.growpathserver.notification.service;
 
+import by.bsuir.growpathserver.notification.model.EmailMessage;
+import by.bsuir.growpathserver.notification.template.NotificationTemplateEngine;
+import by.bsuir.growpathserver.notification.template.RenderedEmail;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class NotificationService {
 
-    private final JavaMailSender mailSender;
+    private final MailSendEngine mailSendEngine;
+    private final NotificationTemplateEngine templateEngine;
 
     @Value("${mailersend.from-email}")
     private String fromEmail;
 
-    public void sendEmail(String to, String subject, String text) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(to);
-            message.setSubject(subject);
-            message.setText(text);
-
-            mailSender.send(message);
-            log.info("Email sent successfully to: {}", to);
-        } catch (Exception e) {
-            log.error("Failed to send email to: {}", to, e);
-            throw new RuntimeException("Failed to send email", e);
-        }
+    public CompletableFuture<Void> sendEmail(String to, String subject, String text) {
+        return mailSendEngine.submit(EmailMessage.plainText(fromEmail, to, subject, text));
+    }
+
+    public CompletableFuture<Void> sendEmail(String to, String template, Map<String, ?> model) {
+        RenderedEmail email = templateEngine.render(template, model);
+        return mailSendEngine.submit(new EmailMessage(fromEmail, to, email.subject(), email.text(), email.html()));
+    }
+
+    /**
+     * Renders the event template in the recipient's {@code locale}, falling back to the
+     * default template locale when it is {@code null} or has no variant.
+     */
+    public CompletableFuture<Void> sendEventEmail(String to, Locale locale, String eventType, List<String> items) {
+        RenderedEmail email = renderEvent(eventType, locale, items);
+        return mailSendEngine.submit(new EmailMessage(fromEmail, to, email.subject(), email.text(), email.html()));
+    }
+
+    public RenderedEmail renderEvent(String eventType, Locale locale, List<String> items) {
+        return templateEngine.render(getTemplateName(eventType), locale, Map.of("items", String.join(", ", items),
+                                                                                "count", items.size(),
+                                                                                "multiple", items.size() > 1));
+    }
+
+    private static String getTemplateName(String eventType) {
+        return eventType.toLowerCase(Locale.ROOT).replace('_', '-');
     }
 }
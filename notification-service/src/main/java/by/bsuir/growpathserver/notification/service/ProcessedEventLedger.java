@@ -0,0 +1,161 @@
+package by.bsuir.growpathserver.notification.service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import by.bsuir.growpathserver.common.event.EventMessage;
+import by.bsuir.growpathserver.notification.repository.ProcessedEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Ledger of event IDs that were already notified, used to drop redeliveries. Lookups go
+ * to an in-memory LRU first and hit {@code processed_events} once per batch for the rest.
+ * New IDs are cached immediately and written to the table in batches.
+ */
+@Slf4j
+@Service
+public class ProcessedEventLedger implements DisposableBean {
+
+    private static final String INSERT_SQL = "INSERT INTO processed_events (event_id, processed_at) VALUES (?, ?) " +
+            "ON CONFLICT (event_id) DO NOTHING";
+    private static final String PURGE_SQL = "DELETE FROM processed_events WHERE processed_at < ?";
+
+    private final ProcessedEventRepository processedEventRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Cache<String, Boolean> processedIds;
+    private final ConcurrentLinkedQueue<String> pendingIds = new ConcurrentLinkedQueue<>();
+    private final int batchSize;
+    private final Duration retention;
+
+    public ProcessedEventLedger(
+            ProcessedEventRepository processedEventRepository,
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${notification.dedup.cache-size:100000}") long cacheSize,
+            @Value("${notification.dedup.cache-ttl:6h}") Duration cacheTtl,
+            @Value("${notification.dedup.batch-size:500}") int batchSize,
+            @Value("${notification.dedup.retention:7d}") Duration retention) {
+        this.processedEventRepository = processedEventRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+        this.retention = retention;
+        this.processedIds = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(cacheTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, processedIds, "notification.dedup");
+    }
+
+    public List<EventMessage> filterNew(List<EventMessage> events) {
+        Map<String, EventMessage> candidates = new LinkedHashMap<>();
+        List<EventMessage> result = new ArrayList<>(events.size());
+        for (EventMessage event : events) {
+            String eventId = event.getEventId();
+            if (eventId == null) {
+                result.add(event);
+            }
+            else if (processedIds.getIfPresent(eventId) == null) {
+                candidates.putIfAbsent(eventId, event);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return result;
+        }
+
+        Set<String> existingIds = processedEventRepository.findExistingIds(candidates.keySet());
+        candidates.forEach((eventId, event) -> {
+            if (existingIds.contains(eventId)) {
+                processedIds.put(eventId, Boolean.TRUE);
+            }
+            else {
+                result.add(event);
+            }
+        });
+        int dropped = events.size() - result.size();
+        if (dropped > 0) {
+            log.info("Dropped {} duplicate events", dropped);
+        }
+        return result;
+    }
+
+    public boolean isProcessed(EventMessage event) {
+        return event.getEventId() != null && !filterNew(List.of(event)).contains(event);
+    }
+
+    public void markProcessed(Collection<EventMessage> events) {
+        for (EventMessage event : events) {
+            if (event.getEventId() != null) {
+                processedIds.put(event.getEventId(), Boolean.TRUE);
+                pendingIds.add(event.getEventId());
+            }
+        }
+        if (pendingIds.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notification.dedup.flush-interval:500ms}")
+    public synchronized void flush() {
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        String eventId;
+        while ((eventId = pendingIds.poll()) != null) {
+            batch.add(new Object[]{eventId, Timestamp.from(Instant.now())});
+            if (batch.size() == batchSize && !insert(batch)) {
+                return;
+            }
+        }
+        insert(batch);
+    }
+
+    @Scheduled(fixedDelayString = "${notification.dedup.purge-interval:1h}")
+    public void purgeExpired() {
+        int purged = jdbcTemplate.update(PURGE_SQL, Timestamp.from(Instant.now().minus(retention)));
+        if (purged > 0) {
+            log.info("Purged {} processed event records", purged);
+        }
+    }
+
+    private boolean insert(List<Object[]> batch) {
+        if (batch.isEmpty()) {
+            return true;
+        }
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+            return true;
+        }
+        catch (DataAccessException e) {
+            log.warn("Failed to store {} processed event IDs, will retry", batch.size(), e);
+            batch.forEach(args -> pendingIds.add((String) args[0]));
+            return false;
+        }
+        finally {
+            batch.clear();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        flush();
+    }
+}
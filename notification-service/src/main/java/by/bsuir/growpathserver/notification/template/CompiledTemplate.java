@@ -0,0 +1,150 @@
+package by.bsuir.growpathserver.notification.template;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A template parsed once into literal and placeholder nodes. Supports a small Mustache
+ * subset: {@code {{name}}} (HTML-escaped in HTML templates), {@code {{{name}}}} (raw),
+ * and sections {@code {{#name}}...{{/name}}} / {@code {{^name}}...{{/name}}} rendered
+ * when the value is truthy / falsy.
+ */
+public final class CompiledTemplate {
+
+    private final List<Node> nodes;
+
+    private CompiledTemplate(List<Node> nodes) {
+        this.nodes = nodes;
+    }
+
+    public static CompiledTemplate compile(String source, boolean html) {
+        Parser parser = new Parser(source, html);
+        List<Node> nodes = parser.parse(null);
+        return new CompiledTemplate(List.copyOf(nodes));
+    }
+
+    public void render(Map<String, ?> model, StringBuilder out) {
+        render(nodes, model, out);
+    }
+
+    private static void render(List<Node> nodes, Map<String, ?> model, StringBuilder out) {
+        for (Node node : nodes) {
+            switch (node) {
+                case Text text -> out.append(text.value());
+                case Variable variable -> {
+                    Object value = model.get(variable.name());
+                    if (value != null) {
+                        if (variable.escape()) {
+                            appendEscaped(String.valueOf(value), out);
+                        }
+                        else {
+                            out.append(value);
+                        }
+                    }
+                }
+                case Section section -> {
+                    if (isTruthy(model.get(section.name())) != section.inverted()) {
+                        render(section.children(), model, out);
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean isTruthy(Object value) {
+        return switch (value) {
+            case null -> false;
+            case Boolean bool -> bool;
+            case Number number -> number.longValue() != 0;
+            case CharSequence text -> !text.isEmpty();
+            case Collection<?> collection -> !collection.isEmpty();
+            default -> true;
+        };
+    }
+
+    private static void appendEscaped(String value, StringBuilder out) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '&' -> out.append("&amp;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+
+    private sealed interface Node permits Text, Variable, Section {
+    }
+
+    private record Text(String value) implements Node {
+    }
+
+    private record Variable(String name, boolean escape) implements Node {
+    }
+
+    private record Section(String name, boolean inverted, List<Node> children) implements Node {
+    }
+
+    private static final class Parser {
+
+        private final String source;
+        private final boolean html;
+        private int position;
+
+        Parser(String source, boolean html) {
+            this.source = source;
+            this.html = html;
+        }
+
+        List<Node> parse(String sectionName) {
+            List<Node> nodes = new ArrayList<>();
+            while (position < source.length()) {
+                int open = source.indexOf("{{", position);
+                if (open < 0) {
+                    nodes.add(new Text(source.substring(position)));
+                    position = source.length();
+                    break;
+                }
+                if (open > position) {
+                    nodes.add(new Text(source.substring(position, open)));
+                }
+
+                boolean raw = source.startsWith("{{{", open);
+                String closeToken = raw ? "}}}" : "}}";
+                int close = source.indexOf(closeToken, open);
+                if (close < 0) {
+                    throw new IllegalArgumentException("Unclosed tag at position " + open);
+                }
+                String tag = source.substring(open + (raw ? 3 : 2), close).trim();
+                position = close + closeToken.length();
+
+                if (raw) {
+                    nodes.add(new Variable(tag, false));
+                }
+                else if (tag.startsWith("#") || tag.startsWith("^")) {
+                    String name = tag.substring(1).trim();
+                    nodes.add(new Section(name, tag.startsWith("^"), List.copyOf(parse(name))));
+                }
+                else if (tag.startsWith("/")) {
+                    String name = tag.substring(1).trim();
+                    if (!name.equals(sectionName)) {
+                        throw new IllegalArgumentException("Unexpected closing tag: " + name);
+                    }
+                    return nodes;
+                }
+                else {
+                    nodes.add(new Variable(tag, html));
+                }
+            }
+            if (sectionName != null) {
+                throw new IllegalArgumentException("Unclosed section: " + sectionName);
+            }
+            return nodes;
+        }
+    }
+}
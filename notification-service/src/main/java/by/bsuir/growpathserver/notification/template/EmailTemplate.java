@@ -0,0 +1,4 @@
+package by.bsuir.growpathserver.notification.template;
+
+public record EmailTemplate(CompiledTemplate subject, CompiledTemplate text, CompiledTemplate html) {
+}
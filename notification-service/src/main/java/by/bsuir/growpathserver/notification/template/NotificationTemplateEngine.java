@@ -0,0 +1,173 @@
+package by.bsuir.growpathserver.notification.template;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Loads email templates once per name and locale, compiles and caches them. A template
+ * named {@code task-completed} consists of {@code subject.txt}, {@code body.txt} and an
+ * optional {@code body.html} under {@code <location>/task-completed/}; localized variants
+ * use a locale suffix such as {@code body_en.txt} and fall back to less specific ones.
+ * Files in {@code notification.templates.directory} take precedence over the classpath and
+ * are reloaded when they change. Templates are cached by language and country only, since
+ * nothing finer selects a file, and at most {@code cache-size} of them are kept, so locales
+ * sent by producers cannot grow the cache without bound.
+ */
+@Slf4j
+@Component
+public class NotificationTemplateEngine {
+
+    private static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+
+    private final ResourceLoader resourceLoader = new DefaultResourceLoader();
+    private final Cache<TemplateKey, EmailTemplate> templates;
+    private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(1024));
+    private final String classpathLocation;
+    private final Path directory;
+    private final Locale defaultLocale;
+    private volatile long directoryVersion;
+
+    public NotificationTemplateEngine(
+            @Value("${notification.templates.classpath-location:classpath:templates/email}") String classpathLocation,
+            @Value("${notification.templates.directory:}") String directory,
+            @Value("${notification.templates.default-locale:ru}") Locale defaultLocale,
+            @Value("${notification.templates.cache-size:1000}") long cacheSize) {
+        this.classpathLocation = classpathLocation;
+        this.directory = StringUtils.hasText(directory) ? Path.of(directory) : null;
+        this.defaultLocale = defaultLocale;
+        this.templates = Caffeine.newBuilder().maximumSize(cacheSize).build();
+        this.directoryVersion = getDirectoryVersion();
+    }
+
+    public RenderedEmail render(String name, Map<String, ?> model) {
+        return render(name, defaultLocale, model);
+    }
+
+    public RenderedEmail render(String name, Locale locale, Map<String, ?> model) {
+        Locale effectiveLocale = locale != null ? locale : defaultLocale;
+        EmailTemplate template = templates.get(new TemplateKey(name, Locale.of(effectiveLocale.getLanguage(),
+                                                                               effectiveLocale.getCountry())),
+                                               this::load);
+        return new RenderedEmail(render(template.subject(), model).strip(),
+                                 render(template.text(), model),
+                                 template.html() != null ? render(template.html(), model) : null);
+    }
+
+    @Scheduled(fixedDelayString = "${notification.templates.reload-interval:10s}")
+    public void reloadIfChanged() {
+        if (directory == null) {
+            return;
+        }
+        long version = getDirectoryVersion();
+        if (version != directoryVersion) {
+            directoryVersion = version;
+            templates.invalidateAll();
+            log.info("Notification templates in {} changed, cache cleared", directory);
+        }
+    }
+
+    private String render(CompiledTemplate template, Map<String, ?> model) {
+        StringBuilder buffer = buffers.get();
+        buffer.setLength(0);
+        template.render(model, buffer);
+        String result = buffer.toString();
+        if (buffer.capacity() > MAX_RETAINED_BUFFER_SIZE) {
+            buffers.remove();
+        }
+        return result;
+    }
+
+    private EmailTemplate load(TemplateKey key) {
+        List<String> suffixes = getLocaleSuffixes(key.locale());
+        String subject = read(key.name(), "subject", ".txt", suffixes);
+        String text = read(key.name(), "body", ".txt", suffixes);
+        if (subject == null || text == null) {
+            throw new IllegalArgumentException("Notification template not found: " + key.name());
+        }
+        String html = read(key.name(), "body", ".html", suffixes);
+        return new EmailTemplate(CompiledTemplate.compile(subject, false),
+                                 CompiledTemplate.compile(text, false),
+                                 html != null ? CompiledTemplate.compile(html, true) : null);
+    }
+
+    private List<String> getLocaleSuffixes(Locale locale) {
+        List<String> suffixes = new ArrayList<>();
+        for (Locale candidate : List.of(locale, defaultLocale)) {
+            if (StringUtils.hasText(candidate.getCountry())) {
+                suffixes.add("_" + candidate.getLanguage() + "_" + candidate.getCountry());
+            }
+            if (StringUtils.hasText(candidate.getLanguage())) {
+                suffixes.add("_" + candidate.getLanguage());
+            }
+        }
+        suffixes.add("");
+        return suffixes.stream().distinct().toList();
+    }
+
+    private String read(String name, String part, String extension, List<String> suffixes) {
+        for (String suffix : suffixes) {
+            String fileName = name + "/" + part + suffix + extension;
+            if (directory != null) {
+                Resource resource = new FileSystemResource(directory.resolve(fileName));
+                if (resource.exists()) {
+                    return read(resource);
+                }
+            }
+            Resource resource = resourceLoader.getResource(classpathLocation + "/" + fileName);
+            if (resource.exists()) {
+                return read(resource);
+            }
+        }
+        return null;
+    }
+
+    private static String read(Resource resource) {
+        try (InputStream inputStream = resource.getInputStream()) {
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Failed to read template " + resource.getDescription(), e);
+        }
+    }
+
+    private long getDirectoryVersion() {
+        if (directory == null || !Files.isDirectory(directory)) {
+            return 0;
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(Files::isRegularFile)
+                    .mapToLong(file -> file.toFile().lastModified() ^ file.hashCode())
+                    .sum();
+        }
+        catch (IOException | UncheckedIOException e) {
+            log.warn("Failed to scan notification templates in {}", directory, e);
+            return directoryVersion;
+        }
+    }
+
+    private record TemplateKey(String name, Locale locale) {
+    }
+}
@@ -0,0 +1,4 @@
+package by.bsuir.growpathserver.notification.template;
+
+public record RenderedEmail(String subject, String text, String html) {
+}
@@ -0,0 +1,122 @@
+package by.bsuir.growpathserver.notification.listener;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.BatchAcknowledgingMessageListener;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+import by.bsuir.growpathserver.common.event.EventMessage;
+import by.bsuir.growpathserver.common.event.TraineeProfileUpdatedPayload;
+import by.bsuir.growpathserver.common.event.schema.EventSchemaRegistry;
+import by.bsuir.growpathserver.common.event.serialization.BinaryEventCodec;
+import by.bsuir.growpathserver.common.event.serialization.BinaryEventSerializer;
+import by.bsuir.growpathserver.common.event.serialization.EventMessageDeserializer;
+import by.bsuir.growpathserver.notification.config.KafkaConsumerConfig;
+import by.bsuir.growpathserver.notification.handler.NotificationHandlerRegistry;
+import by.bsuir.growpathserver.notification.service.EventRetryRouter;
+import by.bsuir.growpathserver.notification.service.ProcessedEventLedger;
+
+@EmbeddedKafka(partitions = 1,
+               topics = {NotificationListenerDeadLetterTests.EVENTS_TOPIC,
+                         NotificationListenerDeadLetterTests.DEAD_LETTER_TOPIC})
+class NotificationListenerDeadLetterTests {
+
+    static final String EVENTS_TOPIC = "events";
+    static final String DEAD_LETTER_TOPIC = "events-dlt";
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private final BinaryEventCodec codec = new BinaryEventCodec(
+            new EventSchemaRegistry(List.of("classpath*:events/schemas/*.json"), objectMapper));
+
+    @Test
+    void movesUndecodableRecordToDeadLetterTopicAndKeepsConsuming(EmbeddedKafkaBroker broker) {
+        KafkaConsumerConfig config = new KafkaConsumerConfig();
+        ReflectionTestUtils.setField(config, "bootstrapServers", broker.getBrokersAsString());
+        ReflectionTestUtils.setField(config, "groupId", "dead-letter-tests");
+        ReflectionTestUtils.setField(config, "maxPollRecords", 500);
+        ReflectionTestUtils.setField(config, "fetchMaxWaitMs", 100);
+        ReflectionTestUtils.setField(config, "concurrency", 1);
+        ReflectionTestUtils.setField(config, "batchTimeout", Duration.ofSeconds(10));
+        ReflectionTestUtils.setField(config, "retrySendTimeout", Duration.ofSeconds(10));
+
+        EventRetryRouter eventRetryRouter = mock(EventRetryRouter.class);
+        when(eventRetryRouter.getDeadLetterTopic()).thenReturn(DEAD_LETTER_TOPIC);
+        ProcessedEventLedger processedEventLedger = mock(ProcessedEventLedger.class);
+        when(processedEventLedger.filterNew(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        KafkaTemplate<String, EventMessage> kafkaTemplate =
+                config.kafkaTemplate(config.producerFactory(new BinaryEventSerializer(codec)));
+        DeadLetterPublishingRecoverer recoverer = config.deadLetterPublishingRecoverer(
+                kafkaTemplate, config.deadLetterBytesKafkaTemplate(), eventRetryRouter);
+        NotificationListener listener = new NotificationListener(
+                mock(NotificationHandlerRegistry.class), eventRetryRouter, processedEventLedger, recoverer,
+                mock(KafkaListenerEndpointRegistry.class), mock(TaskScheduler.class));
+        ReflectionTestUtils.setField(listener, "batchTimeout", Duration.ofSeconds(10));
+        ReflectionTestUtils.setField(listener, "retrySendTimeout", Duration.ofSeconds(10));
+
+        EventMessageDeserializer deserializer = new EventMessageDeserializer(codec, objectMapper);
+        ConcurrentMessageListenerContainer<String, EventMessage> container = config
+                .kafkaListenerContainerFactory(config.consumerFactory(deserializer),
+                                               config.kafkaErrorHandler(recoverer))
+                .createContainer(EVENTS_TOPIC);
+        container.getContainerProperties().setMessageListener(
+                (BatchAcknowledgingMessageListener<String, EventMessage>) (records, acknowledgment) ->
+                        listener.consume(records.stream().map(ConsumerRecord::value).toList(), acknowledgment));
+        container.start();
+
+        KafkaTemplate<String, byte[]> rawTemplate = new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(
+                KafkaTestUtils.producerProps(broker), new StringSerializer(), new ByteArraySerializer()));
+        try (Consumer<String, byte[]> deadLetters = new DefaultKafkaConsumerFactory<>(
+                KafkaTestUtils.consumerProps("dead-letter-reader", "false", broker), new StringDeserializer(),
+                new ByteArrayDeserializer()).createConsumer()) {
+            ContainerTestUtils.waitForAssignment(container, 1);
+
+            byte[] corrupt = {BinaryEventCodec.MAGIC_BYTE, 4};
+            EventMessage event = EventMessage.of(new TraineeProfileUpdatedPayload("user-1", 1L), "user-1");
+            rawTemplate.send(EVENTS_TOPIC, "user-1", corrupt).join();
+            kafkaTemplate.send(EVENTS_TOPIC, "user-1", event).join();
+
+            broker.consumeFromAnEmbeddedTopic(deadLetters, DEAD_LETTER_TOPIC);
+            ConsumerRecord<String, byte[]> deadLetter = KafkaTestUtils.getSingleRecord(deadLetters, DEAD_LETTER_TOPIC,
+                                                                                       TIMEOUT);
+            assertThat(deadLetter.value()).isEqualTo(corrupt);
+            verify(processedEventLedger, timeout(TIMEOUT.toMillis())).filterNew(argThat(
+                    events -> events.stream().anyMatch(e -> event.getEventId().equals(e.getEventId()))));
+        }
+        finally {
+            container.stop();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package by.bsuir.growpathserver.notification.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+class InboxServiceCursorTests {
+
+    @Test
+    void roundTripsCursor() {
+        InboxService.Cursor cursor = new InboxService.Cursor(Instant.parse("2026-03-01T10:15:30.123456789Z"), 42L);
+
+        assertThat(InboxService.Cursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void roundTripsExtremeValues() {
+        InboxService.Cursor cursor = new InboxService.Cursor(Instant.EPOCH.minusNanos(1), Long.MAX_VALUE);
+
+        assertThat(InboxService.Cursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void encodesUrlSafeWithoutPadding() {
+        String encoded = new InboxService.Cursor(Instant.now(), -1L).encode();
+
+        assertThat(encoded).doesNotContain("+", "/", "=");
+    }
+
+    @Test
+    void rejectsInvalidCursors() {
+        for (String value : new String[]{"not base64!", "", "AAAA"}) {
+            assertThatThrownBy(() -> InboxService.Cursor.decode(value))
+                    .isInstanceOfSatisfying(ResponseStatusException.class,
+                                            e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package by.bsuir.growpathserver.notification.template;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class CompiledTemplateTests {
+
+    @Test
+    void rendersTextAndVariables() {
+        CompiledTemplate template = CompiledTemplate.compile("Task {{ items }} done by {{name}}.", false);
+
+        assertThat(render(template, Map.of("items", "Review", "name", "Anna"))).isEqualTo("Task Review done by Anna.");
+    }
+
+    @Test
+    void rendersMissingVariableAsEmpty() {
+        CompiledTemplate template = CompiledTemplate.compile("[{{missing}}]", false);
+
+        assertThat(render(template, Map.of())).isEqualTo("[]");
+    }
+
+    @Test
+    void escapesVariablesOnlyInHtmlTemplates() {
+        Map<String, String> model = Map.of("value", "<a href=\"x\">'&'</a>");
+
+        assertThat(render(CompiledTemplate.compile("{{value}}", true), model))
+                .isEqualTo("&lt;a href=&quot;x&quot;&gt;&#39;&amp;&#39;&lt;/a&gt;");
+        assertThat(render(CompiledTemplate.compile("{{{value}}}", true), model)).isEqualTo(model.get("value"));
+        assertThat(render(CompiledTemplate.compile("{{value}}", false), model)).isEqualTo(model.get("value"));
+    }
+
+    @Test
+    void rendersSectionsByTruthiness() {
+        CompiledTemplate template = CompiledTemplate.compile("{{#flag}}yes{{/flag}}{{^flag}}no{{/flag}}", false);
+
+        assertThat(render(template, Map.of("flag", true))).isEqualTo("yes");
+        assertThat(render(template, Map.of("flag", false))).isEqualTo("no");
+        assertThat(render(template, Map.of("flag", 2))).isEqualTo("yes");
+        assertThat(render(template, Map.of("flag", 0))).isEqualTo("no");
+        assertThat(render(template, Map.of("flag", ""))).isEqualTo("no");
+        assertThat(render(template, Map.of("flag", List.of("a")))).isEqualTo("yes");
+        assertThat(render(template, Map.of("flag", List.of()))).isEqualTo("no");
+        assertThat(render(template, Map.of())).isEqualTo("no");
+    }
+
+    @Test
+    void rendersNestedSections() {
+        CompiledTemplate template = CompiledTemplate.compile(
+                "{{#outer}}<{{#inner}}{{value}}{{/inner}}{{^inner}}-{{/inner}}>{{/outer}}", false);
+
+        assertThat(render(template, Map.of("outer", true, "inner", true, "value", "v"))).isEqualTo("<v>");
+        assertThat(render(template, Map.of("outer", true, "inner", false))).isEqualTo("<->");
+        assertThat(render(template, Map.of("inner", true, "value", "v"))).isEmpty();
+    }
+
+    @Test
+    void appendsToExistingBuffer() {
+        StringBuilder out = new StringBuilder("prefix ");
+
+        CompiledTemplate.compile("{{value}}", false).render(Map.of("value", 1), out);
+
+        assertThat(out).hasToString("prefix 1");
+    }
+
+    @Test
+    void rejectsMalformedTemplates() {
+        assertThatThrownBy(() -> CompiledTemplate.compile("{{value", false))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unclosed tag");
+        assertThatThrownBy(() -> CompiledTemplate.compile("{{#section}}text", false))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unclosed section: section");
+        assertThatThrownBy(() -> CompiledTemplate.compile("{{#a}}{{/b}}", false))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unexpected closing tag: b");
+        assertThatThrownBy(() -> CompiledTemplate.compile("text{{/a}}", false))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unexpected closing tag: a");
+    }
+
+    private static String render(CompiledTemplate template, Map<String, ?> model) {
+        StringBuilder out = new StringBuilder();
+        template.render(model, out);
+        return out.toString();
+    }
+}
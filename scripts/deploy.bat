@@ -60,7 +60,7 @@ echo [INFO] Сборка Docker образов для микросервисов
 
 REM
 echo [INFO] Запуск инфраструктуры (базы данных, Kafka, MinIO)...
-%DOCKER_COMPOSE% -f "%COMPOSE_FILE%" up -d trainee-db notification-db keycloak-db zookeeper kafka minio
+%DOCKER_COMPOSE% -f "%COMPOSE_FILE%" up -d trainee-db trainee-db-replica notification-db keycloak-db zookeeper kafka minio
 
 REM
 echo [INFO] Ожидание готовности баз данных...
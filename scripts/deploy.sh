@@ -44,7 +44,7 @@ echo "Сборка Docker образов для микросервисов..."
 docker-compose -f "$COMPOSE_FILE" build --no-cache
 
 echo "Запуск инфраструктуры (базы данных, Kafka, MinIO, Keycloak)..."
-docker-compose -f "$COMPOSE_FILE" up -d trainee-db notification-db keycloak-db zookeeper kafka minio
+docker-compose -f "$COMPOSE_FILE" up -d trainee-db trainee-db-replica notification-db keycloak-db zookeeper kafka minio
 
 echo "Ожидание готовности баз данных..."
 sleep 15
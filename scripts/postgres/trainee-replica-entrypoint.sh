@@ -0,0 +1,19 @@
+#!/bin/bash
+# Bootstraps a streaming replica of trainee-db on first start and then runs it as a hot standby.
+set -e
+
+if [ ! -s "$PGDATA/PG_VERSION" ]; then
+    until pg_isready -h "$PRIMARY_HOST" -p "${PRIMARY_PORT:-5432}"; do
+        echo "Waiting for $PRIMARY_HOST..."
+        sleep 2
+    done
+
+    mkdir -p "$PGDATA"
+    chown -R postgres:postgres "$PGDATA"
+    chmod 700 "$PGDATA"
+    PGPASSWORD="$REPLICATION_PASSWORD" gosu postgres pg_basebackup \
+        -h "$PRIMARY_HOST" -p "${PRIMARY_PORT:-5432}" -U "$REPLICATION_USER" \
+        -D "$PGDATA" -Fp -Xs -R -P
+fi
+
+exec gosu postgres postgres -c hot_standby=on
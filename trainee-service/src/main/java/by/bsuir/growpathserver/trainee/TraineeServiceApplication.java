@@ -2,8 +2,10 @@ package by.bsuir.growpathserver.trainee;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class TraineeServiceApplication {
 
     public static void main(String[] args) {
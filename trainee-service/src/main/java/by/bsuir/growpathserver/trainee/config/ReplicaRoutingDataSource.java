@@ -0,0 +1,127 @@
+package by.bsuir.growpathserver.trainee.config;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Spreads read-only connections across replica pools in round-robin order. Replication lag
+ * of every replica is checked periodically; replicas that lag behind by more than
+ * {@code maxLag}, or cannot be reached, are skipped until they catch up. When no replica
+ * is usable, connections come from the primary.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    private static final String PRIMARY = "primary";
+    private static final String LAG_SQL = "SELECT CASE WHEN NOT pg_is_in_recovery() " +
+            "OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    private final List<Replica> replicas;
+    private final long maxLagMillis;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter fallbackCounter;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicaPools, Duration maxLag,
+                                    MeterRegistry meterRegistry) {
+        this.replicas = replicaPools.stream().map(Replica::new).toList();
+        this.maxLagMillis = maxLag.toMillis();
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (Replica replica : replicas) {
+            targets.put(replica.name(), replica.dataSource);
+            Gauge.builder("trainee.datasource.replica.lag", replica.lagMillis, AtomicLong::get)
+                    .description("Replication lag of a read replica")
+                    .baseUnit("milliseconds")
+                    .tag("pool", replica.name())
+                    .register(meterRegistry);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+
+        this.fallbackCounter = Counter.builder("trainee.datasource.replica.fallback")
+                .description("Read-only connections served by the primary because no replica was usable")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        int size = replicas.size();
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get(Math.floorMod(next.getAndIncrement(), size));
+            if (replica.usable) {
+                return replica.name();
+            }
+        }
+        if (size > 0) {
+            fallbackCounter.increment();
+        }
+        return PRIMARY;
+    }
+
+    @Scheduled(fixedDelayString = "${trainee.datasource.replica.lag-check-interval:5s}")
+    public void checkReplicationLag() {
+        for (Replica replica : replicas) {
+            boolean usable;
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(LAG_SQL)) {
+                resultSet.next();
+                long lagMillis = Math.round(resultSet.getDouble(1) * 1000);
+                replica.lagMillis.set(lagMillis);
+                usable = lagMillis <= maxLagMillis;
+            }
+            catch (SQLException e) {
+                log.debug("Replication lag check of {} failed", replica.name(), e);
+                usable = false;
+            }
+
+            if (usable != replica.usable) {
+                log.info("Replica {} is {}", replica.name(), usable ? "usable again" : "lagging or unavailable");
+                replica.usable = usable;
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+
+    private static final class Replica {
+
+        private final HikariDataSource dataSource;
+        private final AtomicLong lagMillis = new AtomicLong();
+        private volatile boolean usable;
+
+        private Replica(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        private String name() {
+            return dataSource.getPoolName();
+        }
+    }
+}
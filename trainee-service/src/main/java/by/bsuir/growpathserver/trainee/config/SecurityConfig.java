@@ -1,19 +1,30 @@
 package by.bsuir.growpathserver.trainee.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.web.SecurityFilterChain;
 
+import by.bsuir.growpathserver.common.security.GrowPathJwtAuthenticationConverter;
+import by.bsuir.growpathserver.common.security.JwkSetCache;
+import by.bsuir.growpathserver.common.security.JwkSetConfig;
+
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
+@Import(JwkSetConfig.class)
 public class SecurityConfig {
 
+    @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri}")
+    private String issuerUri;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
@@ -24,9 +35,14 @@ public class SecurityConfig {
                         .requestMatchers("/trainee/**").authenticated()
                         .anyRequest().authenticated()
                 )
-                .oauth2ResourceServer(oauth2 -> oauth2.jwt(jwt -> {
-                }));
+                .oauth2ResourceServer(oauth2 -> oauth2.jwt(jwt -> jwt
+                        .jwtAuthenticationConverter(new GrowPathJwtAuthenticationConverter())));
 
         return http.build();
     }
+
+    @Bean
+    public JwtDecoder jwtDecoder(JwkSetCache jwkSetCache) {
+        return jwkSetCache.jwtDecoder(issuerUri);
+    }
 }
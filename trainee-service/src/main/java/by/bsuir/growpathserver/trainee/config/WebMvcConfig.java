@@ -0,0 +1,24 @@
+package by.bsuir.growpathserver.trainee.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    /**
+     * Runs {@code StreamingResponseBody} downloads on virtual threads. A download holds its
+     * thread for as long as the client takes to read the file, so on the shared
+     * {@code applicationTaskExecutor} a few slow clients would queue every other download.
+     * The executor is not exposed as a bean, so the auto-configured one stays in place for
+     * everything else.
+     */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("mvc-async-");
+        executor.setVirtualThreads(true);
+        configurer.setTaskExecutor(executor);
+    }
+}
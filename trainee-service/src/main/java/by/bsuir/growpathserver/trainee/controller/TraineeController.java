@@ -1,39 +1,94 @@
 package by.bsuir.growpathserver.trainee.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import by.bsuir.growpathserver.common.util.JwtUtils;
+import by.bsuir.growpathserver.common.security.GrowPathPrincipal;
+import by.bsuir.growpathserver.trainee.model.FileMetadata;
+import by.bsuir.growpathserver.trainee.model.PresignedDownload;
+import by.bsuir.growpathserver.trainee.model.PresignedUpload;
+import by.bsuir.growpathserver.trainee.model.StoredObject;
+import by.bsuir.growpathserver.trainee.model.TraineeProfileUpdateRequest;
+import by.bsuir.growpathserver.trainee.model.TraineeProfileView;
+import by.bsuir.growpathserver.trainee.service.FileMetadataService;
+import by.bsuir.growpathserver.trainee.service.FileStorageService;
+import by.bsuir.growpathserver.trainee.service.PresignedUrlService;
+import by.bsuir.growpathserver.trainee.service.ThumbnailService;
+import by.bsuir.growpathserver.trainee.service.TraineeProfileService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
 
 @RestController
 @RequestMapping("/trainee")
+@RequiredArgsConstructor
 public class TraineeController {
 
+    private final FileStorageService fileStorageService;
+    private final FileMetadataService fileMetadataService;
+    private final PresignedUrlService presignedUrlService;
+    private final TraineeProfileService traineeProfileService;
+
     @GetMapping("/health")
     public ResponseEntity<Map<String, String>> health() {
         return ResponseEntity.ok(Map.of("status", "UP", "service", "trainee-service"));
     }
 
     @GetMapping("/profile")
-    public ResponseEntity<Map<String, Object>> getProfile(@AuthenticationPrincipal Jwt jwt) {
+    public ResponseEntity<Map<String, Object>> getProfile(@AuthenticationPrincipal GrowPathPrincipal principal) {
         Map<String, Object> profile = new HashMap<>();
-        profile.put("username", JwtUtils.getUsername(jwt));
-        profile.put("email", JwtUtils.getEmail(jwt));
-        profile.put("roles", JwtUtils.extractRoles(jwt).stream()
-                .map(GrantedAuthority::getAuthority)
-                .toList());
+        profile.put("username", principal.getUsername());
+        profile.put("email", principal.getEmail());
+        profile.put("roles", principal.getAuthorityNames());
+        traineeProfileService.getProfile(principal.getSubject()).ifPresent(trainee -> {
+            profile.put("mentorId", trainee.mentorId());
+            profile.put("track", trainee.track());
+            profile.put("progress", trainee.progress());
+        });
         return ResponseEntity.ok(profile);
     }
 
+    @GetMapping("/profiles/{userId}")
+    @PreAuthorize("hasAnyRole('MENTOR', 'HR_MANAGER', 'ADMIN')")
+    public ResponseEntity<TraineeProfileView> getTraineeProfile(@PathVariable String userId) {
+        return ResponseEntity.of(traineeProfileService.getProfile(userId));
+    }
+
+    @PutMapping("/profiles/{userId}")
+    @PreAuthorize("hasAnyRole('MENTOR', 'HR_MANAGER', 'ADMIN')")
+    public ResponseEntity<TraineeProfileView> updateTraineeProfile(
+            @PathVariable String userId,
+            @Valid @RequestBody TraineeProfileUpdateRequest request) {
+        return ResponseEntity.ok(traineeProfileService.updateProfile(userId, request));
+    }
+
     @GetMapping("/admin")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Map<String, String>> adminEndpoint() {
@@ -51,4 +106,119 @@ public class TraineeController {
     public ResponseEntity<Map<String, String>> traineeInfoEndpoint() {
         return ResponseEntity.ok(Map.of("message", "Trainee information access granted"));
     }
+
+    @PutMapping("/files/{fileName}")
+    public ResponseEntity<FileMetadata> uploadFile(@AuthenticationPrincipal GrowPathPrincipal principal,
+                                                   @PathVariable String fileName,
+                                                   HttpServletRequest request) throws IOException {
+        StoredObject object = fileStorageService.upload(principal.getSubject(), fileName, request.getContentType(),
+                                                        request.getContentLengthLong(), request.getInputStream());
+        return ResponseEntity.created(URI.create(request.getRequestURI()))
+                .body(fileMetadataService.record(principal.getSubject(), object));
+    }
+
+    @GetMapping("/files")
+    public ResponseEntity<List<FileMetadata>> listFiles(@AuthenticationPrincipal GrowPathPrincipal principal) {
+        return ResponseEntity.ok(fileMetadataService.list(principal.getSubject()));
+    }
+
+    @GetMapping("/files/{fileName}")
+    public ResponseEntity<StreamingResponseBody> downloadFile(@AuthenticationPrincipal GrowPathPrincipal principal,
+                                                              @PathVariable String fileName,
+                                                              @RequestHeader HttpHeaders headers) {
+        StoredObject object = fileStorageService.stat(principal.getSubject(), fileName);
+        long size = object.size();
+        long start = 0;
+        long end = size - 1;
+        HttpStatus status = HttpStatus.OK;
+
+        try {
+            List<HttpRange> ranges = headers.getRange();
+            if (!ranges.isEmpty()) {
+                HttpRange range = ranges.getFirst();
+                start = range.getRangeStart(size);
+                end = range.getRangeEnd(size);
+                status = HttpStatus.PARTIAL_CONTENT;
+            }
+        }
+        catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes */" + size)
+                    .build();
+        }
+
+        long offset = start;
+        long length = end - start + 1;
+        StreamingResponseBody body = outputStream -> {
+            if (length <= 0) {
+                return;
+            }
+            try (InputStream input = fileStorageService.open(object.objectName(), offset, length)) {
+                input.transferTo(outputStream);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(status)
+                .contentType(MediaType.parseMediaType(object.contentType()))
+                .contentLength(length)
+                .eTag(object.etag())
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(fileName, StandardCharsets.UTF_8)
+                                .build().toString());
+        if (status == HttpStatus.PARTIAL_CONTENT) {
+            response.header(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+        }
+        return response.body(body);
+    }
+
+    @PostMapping("/files/{fileName}/upload-url")
+    public ResponseEntity<PresignedUpload> createUploadUrl(@AuthenticationPrincipal GrowPathPrincipal principal,
+                                                           @PathVariable String fileName,
+                                                           @RequestParam String contentType,
+                                                           @RequestParam long size) {
+        return ResponseEntity.ok(presignedUrlService.createUpload(principal.getSubject(), fileName, contentType,
+                                                                  size));
+    }
+
+    @PostMapping("/files/{fileName}/complete")
+    public ResponseEntity<StoredObject> completeUpload(@AuthenticationPrincipal GrowPathPrincipal principal,
+                                                       @PathVariable String fileName) {
+        return ResponseEntity.ok(presignedUrlService.completeUpload(principal.getSubject(), fileName));
+    }
+
+    @GetMapping("/files/{fileName}/download-url")
+    public ResponseEntity<PresignedDownload> createDownloadUrl(@AuthenticationPrincipal GrowPathPrincipal principal,
+                                                               @PathVariable String fileName) {
+        return ResponseEntity.ok(presignedUrlService.createDownload(principal.getSubject(), fileName));
+    }
+
+    @GetMapping("/files/{fileName}/thumbnail")
+    public ResponseEntity<StreamingResponseBody> downloadThumbnail(
+            @AuthenticationPrincipal GrowPathPrincipal principal,
+            @PathVariable String fileName) {
+        FileMetadata file = fileMetadataService.get(principal.getSubject(), fileName);
+        if (!file.thumbnailAvailable()) {
+            return ResponseEntity.notFound().build();
+        }
+        String objectName = ThumbnailService.getThumbnailObjectName(
+                fileStorageService.getObjectName(principal.getSubject(), fileName), file.etag());
+        StreamingResponseBody body = outputStream -> {
+            try (InputStream input = fileStorageService.open(objectName)) {
+                input.transferTo(outputStream);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.IMAGE_JPEG)
+                .cacheControl(CacheControl.maxAge(Duration.ofDays(1)).cachePrivate())
+                .eTag(file.etag())
+                .body(body);
+    }
+
+    @DeleteMapping("/files/{fileName}")
+    public ResponseEntity<Void> deleteFile(@AuthenticationPrincipal GrowPathPrincipal principal,
+                                           @PathVariable String fileName) {
+        fileMetadataService.delete(principal.getSubject(), fileName);
+        return ResponseEntity.noContent().build();
+    }
 }
@@ -0,0 +1,82 @@
+package by.bsuir.growpathserver.trainee.entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Table(name = "stored_files",
+       indexes = {
+               @Index(name = "idx_stored_files_owner_id_status_file_name", columnList = "owner_id, status, file_name"),
+               @Index(name = "idx_stored_files_expires_at", columnList = "expires_at"),
+               @Index(name = "idx_stored_files_thumbnail_status", columnList = "thumbnail_status, uploaded_at")
+       })
+@Getter
+@Setter
+@NoArgsConstructor
+public class StoredFile {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "owner_id", nullable = false, length = 64)
+    private String ownerId;
+
+    @Column(name = "file_name", nullable = false)
+    private String fileName;
+
+    @Column(name = "object_name", nullable = false, unique = true, length = 512)
+    private String objectName;
+
+    /**
+     * Key the pending presigned upload is written to; it is promoted to {@link #objectName}
+     * once the upload is verified.
+     */
+    @Column(name = "staging_object_name", length = 512)
+    private String stagingObjectName;
+
+    @Column(name = "pending_content_type")
+    private String pendingContentType;
+
+    @Column(name = "content_type", nullable = false)
+    private String contentType;
+
+    @Column(name = "max_size", nullable = false)
+    private long maxSize;
+
+    private Long size;
+
+    private String etag;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private StoredFileStatus status;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    /**
+     * Deadline of the pending presigned upload; {@code null} when no upload is pending.
+     */
+    @Column(name = "expires_at")
+    private Instant expiresAt;
+
+    @Column(name = "uploaded_at")
+    private Instant uploadedAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "thumbnail_status", length = 16)
+    private ThumbnailStatus thumbnailStatus;
+}
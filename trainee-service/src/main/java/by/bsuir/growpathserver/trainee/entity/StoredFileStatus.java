@@ -0,0 +1,6 @@
+package by.bsuir.growpathserver.trainee.entity;
+
+public enum StoredFileStatus {
+    PENDING,
+    UPLOADED
+}
@@ -0,0 +1,7 @@
+package by.bsuir.growpathserver.trainee.entity;
+
+public enum ThumbnailStatus {
+    PENDING,
+    READY,
+    FAILED
+}
@@ -0,0 +1,40 @@
+package by.bsuir.growpathserver.trainee.entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Table(name = "trainee_profiles",
+       indexes = @Index(name = "idx_trainee_profiles_mentor_id", columnList = "mentor_id"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class TraineeProfile {
+
+    @Id
+    @Column(name = "user_id", length = 64)
+    private String userId;
+
+    @Column(name = "mentor_id", length = 64)
+    private String mentorId;
+
+    private String track;
+
+    @Column(nullable = false)
+    private int progress;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @Version
+    private long version;
+}
@@ -0,0 +1,32 @@
+package by.bsuir.growpathserver.trainee.listener;
+
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import by.bsuir.growpathserver.common.event.EventMessage;
+import by.bsuir.growpathserver.common.event.TraineeProfileUpdatedPayload;
+import by.bsuir.growpathserver.trainee.service.TraineeProfileService;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Reads every partition of the events topic from its end on each instance, so every
+ * instance sees every profile update and evicts its cached copy. The container is
+ * registered by {@link by.bsuir.growpathserver.trainee.config.ProfileCacheListenerConfig}.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProfileCacheInvalidationListener {
+
+    public static final String LISTENER_ID = "trainee-profile-cache-invalidator";
+
+    private final TraineeProfileService traineeProfileService;
+
+    public void consume(List<EventMessage> events) {
+        for (EventMessage event : events) {
+            if (event != null && event.getPayload() instanceof TraineeProfileUpdatedPayload payload) {
+                traineeProfileService.evict(payload.traineeId(), payload.version());
+            }
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package by.bsuir.growpathserver.trainee.model;
+
+import java.time.Instant;
+
+public record FileMetadata(String fileName, String contentType, long size, String etag, Instant uploadedAt,
+                           boolean thumbnailAvailable) {
+}
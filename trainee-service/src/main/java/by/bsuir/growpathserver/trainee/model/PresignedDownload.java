@@ -0,0 +1,6 @@
+package by.bsuir.growpathserver.trainee.model;
+
+import java.time.Instant;
+
+public record PresignedDownload(String url, Instant expiresAt) {
+}
@@ -0,0 +1,7 @@
+package by.bsuir.growpathserver.trainee.model;
+
+import java.time.Instant;
+import java.util.Map;
+
+public record PresignedUpload(String objectName, String url, Map<String, String> formData, Instant expiresAt) {
+}
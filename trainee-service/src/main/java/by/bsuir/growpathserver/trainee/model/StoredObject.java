@@ -0,0 +1,4 @@
+package by.bsuir.growpathserver.trainee.model;
+
+public record StoredObject(String objectName, String fileName, String contentType, long size, String etag) {
+}
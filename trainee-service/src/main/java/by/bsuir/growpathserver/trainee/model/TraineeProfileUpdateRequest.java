@@ -0,0 +1,10 @@
+package by.bsuir.growpathserver.trainee.model;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+
+public record TraineeProfileUpdateRequest(@Size(max = 64) String mentorId,
+                                          @Size(max = 255) String track,
+                                          @Min(0) @Max(100) int progress) {
+}
@@ -0,0 +1,7 @@
+package by.bsuir.growpathserver.trainee.model;
+
+import java.time.Instant;
+
+public record TraineeProfileView(String userId, String mentorId, String track, int progress, Instant updatedAt,
+                                 long version) {
+}
@@ -0,0 +1,42 @@
+package by.bsuir.growpathserver.trainee.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import by.bsuir.growpathserver.trainee.entity.OutboxEvent;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Locks the oldest unsent rows whose message key is not being relayed by another
+     * transaction. The advisory lock on the key is held until commit, so no other instance
+     * sends later rows of the same key while earlier ones are in flight here.
+     */
+    @Query(value = "SELECT * FROM outbox_events WHERE sent_at IS NULL AND failed_at IS NULL " +
+            "AND (message_key IS NULL OR pg_try_advisory_xact_lock(hashtext(message_key))) " +
+            "ORDER BY id LIMIT :batchSize FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> lockUnsentBatch(@Param("batchSize") int batchSize);
+
+    @Modifying
+    @Query("update OutboxEvent e set e.sentAt = :sentAt where e.id in :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") Instant sentAt);
+
+    @Modifying
+    @Query("update OutboxEvent e set e.failedAt = :failedAt where e.id in :ids")
+    int markFailed(@Param("ids") Collection<Long> ids, @Param("failedAt") Instant failedAt);
+
+    long countBySentAtIsNullAndFailedAtIsNull();
+
+    @Query("select min(e.createdAt) from OutboxEvent e where e.sentAt is null and e.failedAt is null")
+    Instant findOldestUnsentCreatedAt();
+
+    @Modifying
+    @Query("delete from OutboxEvent e where e.sentAt < :before")
+    int deleteSentBefore(@Param("before") Instant before);
+}
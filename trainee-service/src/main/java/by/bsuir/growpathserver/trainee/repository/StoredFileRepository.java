@@ -0,0 +1,37 @@
+package by.bsuir.growpathserver.trainee.repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import by.bsuir.growpathserver.trainee.entity.StoredFile;
+import by.bsuir.growpathserver.trainee.entity.StoredFileStatus;
+import by.bsuir.growpathserver.trainee.entity.ThumbnailStatus;
+
+public interface StoredFileRepository extends JpaRepository<StoredFile, Long> {
+
+    Optional<StoredFile> findByObjectName(String objectName);
+
+    @Transactional(readOnly = true)
+    List<StoredFile> findByOwnerIdAndStatusOrderByFileNameAsc(String ownerId, StoredFileStatus status);
+
+    List<StoredFile> findByExpiresAtBefore(Instant before, Limit limit);
+
+    List<StoredFile> findByThumbnailStatusAndUploadedAtBefore(ThumbnailStatus thumbnailStatus, Instant before,
+                                                              Limit limit);
+
+    @Transactional
+    @Modifying
+    @Query("update StoredFile f set f.thumbnailStatus = :thumbnailStatus " +
+            "where f.id = :id and f.etag = :etag and " +
+            "f.thumbnailStatus = by.bsuir.growpathserver.trainee.entity.ThumbnailStatus.PENDING")
+    int updateThumbnailStatus(@Param("id") Long id, @Param("etag") String etag,
+                              @Param("thumbnailStatus") ThumbnailStatus thumbnailStatus);
+}
@@ -0,0 +1,8 @@
+package by.bsuir.growpathserver.trainee.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import by.bsuir.growpathserver.trainee.entity.TraineeProfile;
+
+public interface TraineeProfileRepository extends JpaRepository<TraineeProfile, String> {
+}
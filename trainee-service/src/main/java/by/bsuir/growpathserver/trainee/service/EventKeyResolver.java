@@ -0,0 +1,52 @@
+package by.bsuir.growpathserver.trainee.service;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import by.bsuir.growpathserver.common.event.EventMessage;
+import by.bsuir.growpathserver.common.event.EventType;
+import by.bsuir.growpathserver.common.event.PayloadDescriptor;
+
+/**
+ * Chooses the Kafka record key for an event. By default events are keyed by {@code userId},
+ * which keeps every user's events on one partition and therefore in order. Individual event
+ * types can be keyed by a field of their payload instead, configured as
+ * {@code EVENT_TYPE:payloadField} pairs in {@code kafka.events.key-fields}.
+ */
+@Component
+public class EventKeyResolver {
+
+    private final Map<EventType, String> keyFields = new EnumMap<>(EventType.class);
+
+    public EventKeyResolver(@Value("${kafka.events.key-fields:}") String keyFields) {
+        if (StringUtils.hasText(keyFields)) {
+            for (String mapping : keyFields.split(",")) {
+                String[] parts = mapping.trim().split(":", 2);
+                if (parts.length != 2 || !StringUtils.hasText(parts[0]) || !StringUtils.hasText(parts[1])) {
+                    throw new IllegalArgumentException("Invalid event key mapping: " + mapping);
+                }
+                EventType eventType = EventType.valueOf(parts[0].trim());
+                String field = parts[1].trim();
+                if (PayloadDescriptor.of(eventType).indexOf(field) < 0) {
+                    throw new IllegalArgumentException("Unknown payload field in event key mapping: " + mapping);
+                }
+                this.keyFields.put(eventType, field);
+            }
+        }
+    }
+
+    public String resolveKey(EventMessage message) {
+        String keyField = keyFields.get(message.getEventType());
+        if (keyField != null && message.getPayload() != null) {
+            Object value = PayloadDescriptor.of(message.getEventType()).get(message.getPayload(), keyField);
+            if (value != null) {
+                return value.toString();
+            }
+        }
+        return message.getUserId();
+    }
+}
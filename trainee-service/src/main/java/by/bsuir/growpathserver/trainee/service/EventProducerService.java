@@ -1,30 +1,90 @@
 package by.bsuir.growpathserver.trainee.service;
 
-import by.bsuir.growpathserver.trainee.model.EventMessage;
+import by.bsuir.growpathserver.common.event.EventMessage;
+import by.bsuir.growpathserver.common.event.EventPayload;
+import by.bsuir.growpathserver.trainee.entity.OutboxEvent;
+import by.bsuir.growpathserver.trainee.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
-import java.util.Map;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class EventProducerService {
 
-    private final KafkaTemplate<String, Object> kafkaTemplate;
-    private static final String TOPIC = "growpath-events";
+    private final KafkaTemplate<String, EventMessage> kafkaTemplate;
+    private final EventKeyResolver eventKeyResolver;
+    private final MeterRegistry meterRegistry;
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private static final String ACK_LATENCY_METRIC = "growpath.events.ack.latency";
 
-    public void sendEvent(String eventType, Map<String, Object> data, String userId) {
-        EventMessage message = new EventMessage();
-        message.setEventType(eventType);
-        message.setTimestamp(LocalDateTime.now());
-        message.setData(data);
-        message.setUserId(userId);
+    @Value("${kafka.topics.events.name:growpath-events}")
+    private String topic;
 
-        kafkaTemplate.send(TOPIC, message);
-        log.info("Event sent: {} for user: {}", eventType, userId);
+    /**
+     * Stores the event in the outbox as part of the caller's transaction. The event is
+     * published by {@link OutboxRelay} only after that transaction commits.
+     */
+    @Transactional
+    public void sendEvent(EventPayload payload, String userId) {
+        EventMessage message = EventMessage.of(payload, userId);
+
+        OutboxEvent outboxEvent = new OutboxEvent();
+        outboxEvent.setEventId(message.getEventId());
+        outboxEvent.setEventType(message.getEventType().name());
+        outboxEvent.setMessageKey(eventKeyResolver.resolveKey(message));
+        outboxEvent.setCreatedAt(Instant.now());
+        try {
+            outboxEvent.setPayload(objectMapper.writeValueAsString(message));
+        }
+        catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Failed to serialize event: " + message.getEventType(), e);
+        }
+        outboxEventRepository.save(outboxEvent);
+    }
+
+    public CompletableFuture<SendResult<String, EventMessage>> sendEventAsync(EventPayload payload, String userId) {
+        EventMessage message = EventMessage.of(payload, userId);
+        return publish(eventKeyResolver.resolveKey(message), message);
+    }
+
+    public CompletableFuture<SendResult<String, EventMessage>> publish(String key, EventMessage message) {
+        String eventType = message.getEventType().name();
+        String userId = message.getUserId();
+        long startedAt = System.nanoTime();
+        return kafkaTemplate.send(topic, key, message)
+                .whenComplete((result, ex) -> {
+                    recordAckLatency(eventType, ex == null, System.nanoTime() - startedAt);
+                    if (ex != null) {
+                        log.error("Failed to send event: {} for user: {}", eventType, userId, ex);
+                    }
+                    else {
+                        log.info("Event sent: {} for user: {} to partition {} at offset {}", eventType, userId,
+                                 result.getRecordMetadata().partition(), result.getRecordMetadata().offset());
+                    }
+                });
+    }
+
+    private void recordAckLatency(String eventType, boolean success, long elapsedNanos) {
+        Timer.builder(ACK_LATENCY_METRIC)
+                .description("Time from send until the broker acknowledged the event")
+                .tag("eventType", eventType)
+                .tag("outcome", success ? "success" : "failure")
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
     }
 }
@@ -0,0 +1,222 @@
+package by.bsuir.growpathserver.trainee.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import by.bsuir.growpathserver.trainee.entity.StoredFile;
+import by.bsuir.growpathserver.trainee.entity.StoredFileStatus;
+import by.bsuir.growpathserver.trainee.entity.ThumbnailStatus;
+import by.bsuir.growpathserver.trainee.model.FileMetadata;
+import by.bsuir.growpathserver.trainee.model.StoredObject;
+import by.bsuir.growpathserver.trainee.repository.StoredFileRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Index of stored files in {@code stored_files}, so listing a trainee's documents is one
+ * indexed query instead of bucket listings and per-object stats. Per-owner listings are
+ * cached in memory and invalidated after every committed change. Thumbnails for supported
+ * types are generated in the background once an upload is recorded; rows whose thumbnail
+ * is still pending after {@code storage.thumbnails.stale-after} are resubmitted.
+ */
+@Slf4j
+@Service
+public class FileMetadataService {
+
+    private final StoredFileRepository storedFileRepository;
+    private final FileStorageService fileStorageService;
+    private final ThumbnailService thumbnailService;
+    private final RecentWriteTracker recentWriteTracker;
+    private final Cache<String, List<FileMetadata>> listings;
+    private final Set<Long> thumbnailsInFlight = ConcurrentHashMap.newKeySet();
+    private final Duration thumbnailStaleAfter;
+    private final int thumbnailBackfillBatchSize;
+
+    public FileMetadataService(
+            StoredFileRepository storedFileRepository,
+            FileStorageService fileStorageService,
+            ThumbnailService thumbnailService,
+            RecentWriteTracker recentWriteTracker,
+            MeterRegistry meterRegistry,
+            @Value("${storage.metadata.cache-size:10000}") long cacheSize,
+            @Value("${storage.metadata.cache-ttl:1m}") Duration cacheTtl,
+            @Value("${storage.thumbnails.stale-after:5m}") Duration thumbnailStaleAfter,
+            @Value("${storage.thumbnails.backfill-batch-size:100}") int thumbnailBackfillBatchSize) {
+        this.storedFileRepository = storedFileRepository;
+        this.fileStorageService = fileStorageService;
+        this.thumbnailService = thumbnailService;
+        this.recentWriteTracker = recentWriteTracker;
+        this.thumbnailStaleAfter = thumbnailStaleAfter;
+        this.thumbnailBackfillBatchSize = thumbnailBackfillBatchSize;
+        this.listings = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(cacheTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, listings, "trainee.files.metadata");
+    }
+
+    public List<FileMetadata> list(String ownerId) {
+        return listings.get(ownerId, key -> recentWriteTracker.read(getWriteKey(key), () -> storedFileRepository
+                .findByOwnerIdAndStatusOrderByFileNameAsc(key, StoredFileStatus.UPLOADED)
+                .stream()
+                .map(FileMetadataService::toMetadata)
+                .toList()));
+    }
+
+    public FileMetadata get(String ownerId, String fileName) {
+        return list(ownerId).stream()
+                .filter(file -> file.fileName().equals(fileName))
+                .findFirst()
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "File not found"));
+    }
+
+    @Transactional
+    public FileMetadata record(String ownerId, StoredObject object) {
+        StoredFile file = storedFileRepository.findByObjectName(object.objectName()).orElseGet(StoredFile::new);
+        if (file.getId() == null) {
+            file.setOwnerId(ownerId);
+            file.setFileName(object.fileName());
+            file.setObjectName(object.objectName());
+            file.setCreatedAt(Instant.now());
+        }
+        file.setContentType(object.contentType());
+        file.setMaxSize(object.size());
+        file.setSize(object.size());
+        file.setEtag(object.etag());
+        file.setStatus(StoredFileStatus.UPLOADED);
+        file.setUploadedAt(Instant.now());
+        file.setExpiresAt(null);
+        file.setStagingObjectName(null);
+        file.setPendingContentType(null);
+        markUploaded(file);
+        return toMetadata(file);
+    }
+
+    /**
+     * Saves a file that has just become available and, once the surrounding transaction
+     * commits, refreshes the owner's listing and schedules its thumbnail.
+     */
+    public void markUploaded(StoredFile file) {
+        boolean hadThumbnail = file.getThumbnailStatus() == ThumbnailStatus.READY;
+        boolean thumbnail = thumbnailService.supports(file.getContentType(), file.getSize());
+        file.setThumbnailStatus(thumbnail ? ThumbnailStatus.PENDING : null);
+        storedFileRepository.save(file);
+
+        afterCommit(() -> {
+            invalidate(file.getOwnerId());
+            if (thumbnail) {
+                generateThumbnail(file);
+            }
+            else if (hadThumbnail) {
+                deleteThumbnails(file.getObjectName(), null);
+            }
+        });
+    }
+
+    @Transactional
+    public void delete(String ownerId, String fileName) {
+        String objectName = fileStorageService.getObjectName(ownerId, fileName);
+        fileStorageService.deleteObject(objectName);
+        storedFileRepository.findByObjectName(objectName).ifPresent(file -> {
+            if (file.getThumbnailStatus() != null) {
+                deleteThumbnails(objectName, null);
+            }
+            storedFileRepository.delete(file);
+        });
+        afterCommit(() -> invalidate(ownerId));
+    }
+
+    @Scheduled(fixedDelayString = "${storage.thumbnails.backfill-interval:1m}")
+    public void backfillThumbnails() {
+        storedFileRepository.findByThumbnailStatusAndUploadedAtBefore(ThumbnailStatus.PENDING,
+                                                                      Instant.now().minus(thumbnailStaleAfter),
+                                                                      Limit.of(thumbnailBackfillBatchSize))
+                .forEach(this::generateThumbnail);
+    }
+
+    private void generateThumbnail(StoredFile file) {
+        Long id = file.getId();
+        if (!thumbnailsInFlight.add(id)) {
+            return;
+        }
+        String ownerId = file.getOwnerId();
+        String objectName = file.getObjectName();
+        String etag = file.getEtag();
+        thumbnailService.generate(objectName, etag, file.getContentType())
+                .whenComplete((result, e) -> {
+                    thumbnailsInFlight.remove(id);
+                    if (e instanceof RejectedExecutionException) {
+                        log.debug("Thumbnail queue is full, deferring {}", file.getObjectName());
+                        return;
+                    }
+                    if (e != null) {
+                        log.warn("Failed to generate thumbnail of {}", file.getObjectName(), e);
+                    }
+                    int updated = storedFileRepository.updateThumbnailStatus(id, etag,
+                                                                             e == null ? ThumbnailStatus.READY :
+                                                                                     ThumbnailStatus.FAILED);
+                    if (e == null && updated > 0) {
+                        deleteThumbnails(objectName, ThumbnailService.getThumbnailObjectName(objectName, etag));
+                    }
+                    invalidate(ownerId);
+                });
+    }
+
+    private void invalidate(String ownerId) {
+        recentWriteTracker.recordWrite(getWriteKey(ownerId));
+        listings.invalidate(ownerId);
+    }
+
+    /**
+     * Removes the thumbnails of earlier versions of a file, keeping {@code keep} if given.
+     */
+    private void deleteThumbnails(String objectName, String keep) {
+        try {
+            fileStorageService.deleteObjects(ThumbnailService.getThumbnailPrefix(objectName), keep);
+        }
+        catch (RuntimeException e) {
+            log.warn("Failed to delete thumbnails of {}", objectName, e);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static String getWriteKey(String ownerId) {
+        return "files:" + ownerId;
+    }
+
+    private static FileMetadata toMetadata(StoredFile file) {
+        return new FileMetadata(file.getFileName(), file.getContentType(), file.getSize(), file.getEtag(),
+                                file.getUploadedAt(), file.getThumbnailStatus() == ThumbnailStatus.READY);
+    }
+}
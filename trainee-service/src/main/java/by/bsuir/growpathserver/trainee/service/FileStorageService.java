@@ -0,0 +1,472 @@
+package by.bsuir.growpathserver.trainee.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+import by.bsuir.growpathserver.trainee.model.StoredObject;
+import io.minio.BucketExistsArgs;
+import io.minio.ComposeObjectArgs;
+import io.minio.ComposeSource;
+import io.minio.CopyObjectArgs;
+import io.minio.CopySource;
+import io.minio.GetBucketLifecycleArgs;
+import io.minio.GetObjectArgs;
+import io.minio.ListObjectsArgs;
+import io.minio.MakeBucketArgs;
+import io.minio.MinioClient;
+import io.minio.ObjectWriteResponse;
+import io.minio.PutObjectArgs;
+import io.minio.RemoveObjectArgs;
+import io.minio.RemoveObjectsArgs;
+import io.minio.Result;
+import io.minio.SetBucketLifecycleArgs;
+import io.minio.StatObjectArgs;
+import io.minio.StatObjectResponse;
+import io.minio.errors.ErrorResponseException;
+import io.minio.messages.DeleteError;
+import io.minio.messages.DeleteObject;
+import io.minio.messages.Expiration;
+import io.minio.messages.Item;
+import io.minio.messages.LifecycleConfiguration;
+import io.minio.messages.LifecycleRule;
+import io.minio.messages.RuleFilter;
+import io.minio.messages.Status;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Streams files between HTTP requests and the storage bucket without holding whole files
+ * in memory. Uploads are cut into parts of {@code storage.upload.part-size} that are
+ * written concurrently as temporary objects and then composed server-side into the final
+ * object. The number of part buffers held at once is bounded both per upload and across
+ * all uploads, so heap usage does not grow with file size or the number of uploads. Parts
+ * are removed once composed, and a bucket lifecycle rule expires any that are left behind.
+ */
+@Slf4j
+@Service
+public class FileStorageService implements DisposableBean {
+
+    private static final String FILES_PREFIX = "files/";
+    private static final String PARTS_PREFIX = "uploads/";
+    private static final String PARTS_EXPIRY_RULE_ID = "expire-upload-parts";
+    private static final long MIN_PART_SIZE = DataSize.ofMegabytes(5).toBytes();
+    private static final int MAX_FILE_NAME_LENGTH = 255;
+
+    private final MinioClient minioClient;
+    private final String bucketName;
+    private final int partSize;
+    private final int parallelism;
+    private final long maxSize;
+    private final int partsExpiryDays;
+    private final Semaphore partBuffers;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private volatile boolean bucketChecked;
+
+    public FileStorageService(
+            MinioClient minioClient,
+            @Value("${minio.bucket-name}") String bucketName,
+            @Value("${storage.upload.part-size:16MB}") DataSize partSize,
+            @Value("${storage.upload.parallelism:4}") int parallelism,
+            @Value("${storage.upload.max-buffered-parts:32}") int maxBufferedParts,
+            @Value("${storage.upload.max-size:5GB}") DataSize maxSize,
+            @Value("${storage.upload.parts-expiry:1d}") Duration partsExpiry) {
+        if (partSize.toBytes() < MIN_PART_SIZE || partSize.toBytes() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("storage.upload.part-size must be between 5MB and 2GB");
+        }
+        this.minioClient = minioClient;
+        this.bucketName = bucketName;
+        this.partSize = (int) partSize.toBytes();
+        this.parallelism = Math.min(parallelism, maxBufferedParts);
+        this.maxSize = maxSize.toBytes();
+        this.partsExpiryDays = (int) Math.max(1, partsExpiry.toDays());
+        this.partBuffers = new Semaphore(maxBufferedParts, true);
+    }
+
+    public StoredObject upload(String ownerId, String fileName, String contentType, long contentLength,
+                               InputStream input) {
+        if (contentLength > maxSize) {
+            throw payloadTooLarge();
+        }
+        String objectName = getObjectName(ownerId, fileName);
+        String type = contentType != null ? contentType : MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        ensureBucket();
+
+        Semaphore uploadSlots = new Semaphore(parallelism);
+        acquire(uploadSlots);
+        byte[] part;
+        try {
+            part = input.readNBytes(partSize);
+        }
+        catch (IOException e) {
+            release(uploadSlots);
+            throw new IllegalStateException("Failed to read upload of " + objectName, e);
+        }
+
+        if (part.length < partSize) {
+            try {
+                ObjectWriteResponse response = putObject(objectName, part, type);
+                return new StoredObject(objectName, fileName, type, part.length, response.etag());
+            }
+            finally {
+                release(uploadSlots);
+            }
+        }
+        return uploadInParts(objectName, fileName, type, part, input, uploadSlots);
+    }
+
+    public StoredObject stat(String ownerId, String fileName) {
+        return stat(getObjectName(ownerId, fileName), fileName);
+    }
+
+    public StoredObject stat(String objectName, String fileName) {
+        try {
+            StatObjectResponse response = minioClient.statObject(StatObjectArgs.builder()
+                                                                         .bucket(bucketName)
+                                                                         .object(objectName)
+                                                                         .build());
+            return new StoredObject(objectName, fileName, response.contentType(), response.size(),
+                                    response.etag());
+        }
+        catch (ErrorResponseException e) {
+            throw isNotFound(e) ? new ResponseStatusException(HttpStatus.NOT_FOUND, "File not found") :
+                    new IllegalStateException("Failed to read metadata of " + objectName, e);
+        }
+        catch (Exception e) {
+            throw new IllegalStateException("Failed to read metadata of " + objectName, e);
+        }
+    }
+
+    /**
+     * Returns a fresh key under the upload prefix for an object that is written first and
+     * promoted with {@link #promote} once verified. Staged objects that are never promoted
+     * expire with the bucket lifecycle rule.
+     */
+    public String newStagingObjectName() {
+        return PARTS_PREFIX + UUID.randomUUID();
+    }
+
+    /**
+     * Copies a staged object to {@code objectName} server-side and removes the staged copy.
+     */
+    public StoredObject promote(StoredObject staged, String objectName) {
+        ObjectWriteResponse response;
+        try {
+            response = minioClient.copyObject(CopyObjectArgs.builder()
+                                                      .bucket(bucketName)
+                                                      .object(objectName)
+                                                      .source(CopySource.builder()
+                                                                      .bucket(bucketName)
+                                                                      .object(staged.objectName())
+                                                                      .build())
+                                                      .build());
+        }
+        catch (Exception e) {
+            throw new IllegalStateException("Failed to promote " + staged.objectName() + " to " + objectName, e);
+        }
+        try {
+            deleteObject(staged.objectName());
+        }
+        catch (IllegalStateException e) {
+            log.warn("Failed to remove staged upload {}", staged.objectName(), e);
+        }
+        return new StoredObject(objectName, staged.fileName(), staged.contentType(), staged.size(),
+                                response.etag());
+    }
+
+    public InputStream open(String objectName, long offset, long length) {
+        try {
+            return minioClient.getObject(GetObjectArgs.builder()
+                                                 .bucket(bucketName)
+                                                 .object(objectName)
+                                                 .offset(offset)
+                                                 .length(length)
+                                                 .build());
+        }
+        catch (ErrorResponseException e) {
+            throw isNotFound(e) ? new ResponseStatusException(HttpStatus.NOT_FOUND, "File not found") :
+                    new IllegalStateException("Failed to read " + objectName, e);
+        }
+        catch (Exception e) {
+            throw new IllegalStateException("Failed to read " + objectName, e);
+        }
+    }
+
+    public InputStream open(String objectName) {
+        try {
+            return minioClient.getObject(GetObjectArgs.builder().bucket(bucketName).object(objectName).build());
+        }
+        catch (ErrorResponseException e) {
+            throw isNotFound(e) ? new ResponseStatusException(HttpStatus.NOT_FOUND, "File not found") :
+                    new IllegalStateException("Failed to read " + objectName, e);
+        }
+        catch (Exception e) {
+            throw new IllegalStateException("Failed to read " + objectName, e);
+        }
+    }
+
+    public void write(String objectName, byte[] data, String contentType) {
+        putObject(objectName, data, contentType);
+    }
+
+    public void delete(String ownerId, String fileName) {
+        deleteObject(getObjectName(ownerId, fileName));
+    }
+
+    public void deleteObject(String objectName) {
+        try {
+            minioClient.removeObject(RemoveObjectArgs.builder().bucket(bucketName).object(objectName).build());
+        }
+        catch (Exception e) {
+            throw new IllegalStateException("Failed to delete " + objectName, e);
+        }
+    }
+
+    /**
+     * Removes every object under {@code prefix} except {@code keep}, which may be {@code null}.
+     */
+    public void deleteObjects(String prefix, String keep) {
+        List<String> objectNames = new ArrayList<>();
+        try {
+            for (Result<Item> result : minioClient.listObjects(ListObjectsArgs.builder()
+                                                                       .bucket(bucketName)
+                                                                       .prefix(prefix)
+                                                                       .recursive(true)
+                                                                       .build())) {
+                String objectName = result.get().objectName();
+                if (!objectName.equals(keep)) {
+                    objectNames.add(objectName);
+                }
+            }
+        }
+        catch (Exception e) {
+            throw new IllegalStateException("Failed to list " + prefix, e);
+        }
+        removeObjects(objectNames);
+    }
+
+    public String getObjectName(String ownerId, String fileName) {
+        if (fileName == null || fileName.isBlank() || fileName.length() > MAX_FILE_NAME_LENGTH
+                || fileName.contains("/") || fileName.contains("\\") || fileName.equals(".")
+                || fileName.equals("..")) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid file name");
+        }
+        return FILES_PREFIX + ownerId + "/" + fileName;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private StoredObject uploadInParts(String objectName, String fileName, String contentType, byte[] firstPart,
+                                       InputStream input, Semaphore uploadSlots) {
+        String partsPrefix = PARTS_PREFIX + UUID.randomUUID() + "/";
+        List<String> partNames = new ArrayList<>();
+        List<CompletableFuture<Void>> uploads = new ArrayList<>();
+        long size = 0;
+        boolean holdingSlot = true;
+        try {
+            byte[] part = firstPart;
+            while (true) {
+                size += part.length;
+                if (size > maxSize) {
+                    throw payloadTooLarge();
+                }
+                String partName = partsPrefix + (partNames.size() + 1);
+                partNames.add(partName);
+                byte[] data = part;
+                uploads.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        putObject(partName, data, contentType);
+                    }
+                    finally {
+                        release(uploadSlots);
+                    }
+                }, executor));
+                holdingSlot = false;
+                if (data.length < partSize) {
+                    break;
+                }
+
+                acquire(uploadSlots);
+                holdingSlot = true;
+                part = input.readNBytes(partSize);
+                if (part.length == 0) {
+                    break;
+                }
+            }
+
+            CompletableFuture.allOf(uploads.toArray(CompletableFuture[]::new)).join();
+            ObjectWriteResponse response = composeObject(objectName, partNames, contentType);
+            return new StoredObject(objectName, fileName, contentType, size, response.etag());
+        }
+        catch (IOException e) {
+            throw new IllegalStateException("Failed to read upload of " + objectName, e);
+        }
+        catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause :
+                    new IllegalStateException("Failed to upload " + objectName, e.getCause());
+        }
+        finally {
+            if (holdingSlot) {
+                release(uploadSlots);
+            }
+            CompletableFuture.allOf(uploads.toArray(CompletableFuture[]::new))
+                    .whenComplete((result, e) -> removeObjects(partNames));
+        }
+    }
+
+    private ObjectWriteResponse putObject(String objectName, byte[] data, String contentType) {
+        try {
+            return minioClient.putObject(PutObjectArgs.builder()
+                                                 .bucket(bucketName)
+                                                 .object(objectName)
+                                                 .stream(new ByteArrayInputStream(data), data.length, -1)
+                                                 .contentType(contentType)
+                                                 .build());
+        }
+        catch (Exception e) {
+            throw new IllegalStateException("Failed to write " + objectName, e);
+        }
+    }
+
+    private ObjectWriteResponse composeObject(String objectName, List<String> partNames, String contentType) {
+        List<ComposeSource> sources = partNames.stream()
+                .map(partName -> ComposeSource.builder().bucket(bucketName).object(partName).build())
+                .toList();
+        try {
+            return minioClient.composeObject(ComposeObjectArgs.builder()
+                                                     .bucket(bucketName)
+                                                     .object(objectName)
+                                                     .sources(sources)
+                                                     .headers(Map.of("Content-Type", contentType))
+                                                     .build());
+        }
+        catch (Exception e) {
+            throw new IllegalStateException("Failed to compose " + objectName, e);
+        }
+    }
+
+    private void removeObjects(List<String> objectNames) {
+        if (objectNames.isEmpty()) {
+            return;
+        }
+        Iterable<Result<DeleteError>> results = minioClient.removeObjects(RemoveObjectsArgs.builder()
+                .bucket(bucketName)
+                .objects(objectNames.stream().map(DeleteObject::new).toList())
+                .build());
+        try {
+            for (Result<DeleteError> result : results) {
+                DeleteError error = result.get();
+                log.warn("Failed to remove {}: {}", error.objectName(), error.message());
+            }
+        }
+        catch (Exception e) {
+            log.warn("Failed to remove objects", e);
+        }
+    }
+
+    public void ensureBucket() {
+        if (bucketChecked) {
+            return;
+        }
+        try {
+            if (!minioClient.bucketExists(BucketExistsArgs.builder().bucket(bucketName).build())) {
+                minioClient.makeBucket(MakeBucketArgs.builder().bucket(bucketName).build());
+            }
+        }
+        catch (ErrorResponseException e) {
+            if (!"BucketAlreadyOwnedByYou".equals(e.errorResponse().code())) {
+                throw new IllegalStateException("Failed to create bucket " + bucketName, e);
+            }
+        }
+        catch (Exception e) {
+            throw new IllegalStateException("Failed to check bucket " + bucketName, e);
+        }
+        ensurePartsExpiry();
+        bucketChecked = true;
+    }
+
+    /**
+     * Adds a lifecycle rule that expires objects under {@link #PARTS_PREFIX}, so parts and
+     * staged uploads that were never composed or promoted do not accumulate. Other rules of
+     * the bucket are kept.
+     */
+    private void ensurePartsExpiry() {
+        try {
+            LifecycleConfiguration current = minioClient.getBucketLifecycle(GetBucketLifecycleArgs.builder()
+                                                                                    .bucket(bucketName)
+                                                                                    .build());
+            List<LifecycleRule> rules = new ArrayList<>();
+            if (current != null) {
+                for (LifecycleRule rule : current.rules()) {
+                    if (PARTS_EXPIRY_RULE_ID.equals(rule.id())) {
+                        return;
+                    }
+                    rules.add(rule);
+                }
+            }
+            rules.add(new LifecycleRule(Status.ENABLED, null,
+                                        new Expiration((ZonedDateTime) null, partsExpiryDays, null),
+                                        new RuleFilter(PARTS_PREFIX), PARTS_EXPIRY_RULE_ID, null, null, null));
+            minioClient.setBucketLifecycle(SetBucketLifecycleArgs.builder()
+                                                   .bucket(bucketName)
+                                                   .config(new LifecycleConfiguration(rules))
+                                                   .build());
+        }
+        catch (Exception e) {
+            log.warn("Failed to set expiry of upload parts in bucket {}", bucketName, e);
+        }
+    }
+
+    private void acquire(Semaphore uploadSlots) {
+        try {
+            uploadSlots.acquire();
+            try {
+                partBuffers.acquire();
+            }
+            catch (InterruptedException e) {
+                uploadSlots.release();
+                throw e;
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an upload buffer", e);
+        }
+    }
+
+    private void release(Semaphore uploadSlots) {
+        partBuffers.release();
+        uploadSlots.release();
+    }
+
+    private static boolean isNotFound(ErrorResponseException e) {
+        String code = e.errorResponse().code();
+        return "NoSuchKey".equals(code) || "NoSuchObject".equals(code);
+    }
+
+    private static ResponseStatusException payloadTooLarge() {
+        return new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "File is too large");
+    }
+}
@@ -0,0 +1,200 @@
+package by.bsuir.growpathserver.trainee.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import by.bsuir.growpathserver.common.event.EventMessage;
+import by.bsuir.growpathserver.trainee.entity.OutboxEvent;
+import by.bsuir.growpathserver.trainee.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Publishes outbox rows to Kafka. Each poll locks a batch of unsent rows with
+ * {@code FOR UPDATE SKIP LOCKED}, together with a transaction-scoped advisory lock on each
+ * message key, so several instances can relay concurrently while every key is relayed by
+ * one instance at a time. Rows of different keys are sent together; rows of the same key
+ * are sent one at a time, each after the previous one was acknowledged, so a failed event
+ * is never overtaken by a newer event of the same user. Acknowledged rows are marked as
+ * sent in the same transaction; the rest stay unsent and are picked up by a later poll.
+ * Rows whose payload cannot be read are marked as failed and kept for inspection.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final EventProducerService eventProducerService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatchesPerPoll;
+    private final Duration sendTimeout;
+    private final Duration retention;
+    private final Timer batchTimer;
+    private final Counter failedCounter;
+    private final AtomicLong pendingEvents = new AtomicLong();
+    private final AtomicLong oldestPendingAgeMillis = new AtomicLong();
+
+    public OutboxRelay(
+            OutboxEventRepository outboxEventRepository,
+            EventProducerService eventProducerService,
+            ObjectMapper objectMapper,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${outbox.relay.batch-size:200}") int batchSize,
+            @Value("${outbox.relay.max-batches-per-poll:10}") int maxBatchesPerPoll,
+            @Value("${outbox.relay.send-timeout:10s}") Duration sendTimeout,
+            @Value("${outbox.retention:1d}") Duration retention) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.eventProducerService = eventProducerService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxBatchesPerPoll = maxBatchesPerPoll;
+        this.sendTimeout = sendTimeout;
+        this.retention = retention;
+
+        this.batchTimer = Timer.builder("growpath.outbox.relay.batch")
+                .description("Time to publish and mark one outbox batch")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("growpath.outbox.failed")
+                .description("Outbox events that could not be read and were marked as failed")
+                .register(meterRegistry);
+        Gauge.builder("growpath.outbox.pending", pendingEvents, AtomicLong::get)
+                .description("Outbox events not yet published")
+                .register(meterRegistry);
+        Gauge.builder("growpath.outbox.lag", oldestPendingAgeMillis, AtomicLong::get)
+                .description("Age of the oldest unpublished outbox event")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.poll-interval:200ms}")
+    public void relay() {
+        for (int i = 0; i < maxBatchesPerPoll; i++) {
+            Integer published = batchTimer.record(() -> transactionTemplate.execute(status -> relayBatch()));
+            if (published == null || published < batchSize) {
+                break;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.metrics-interval:5s}")
+    public void updateLagMetrics() {
+        pendingEvents.set(outboxEventRepository.countBySentAtIsNullAndFailedAtIsNull());
+        Instant oldest = outboxEventRepository.findOldestUnsentCreatedAt();
+        oldestPendingAgeMillis.set(oldest != null ? Duration.between(oldest, Instant.now()).toMillis() : 0);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.purge-interval:1h}")
+    public void purgeSent() {
+        Integer purged = transactionTemplate.execute(
+                status -> outboxEventRepository.deleteSentBefore(Instant.now().minus(retention)));
+        if (purged != null && purged > 0) {
+            log.info("Purged {} sent outbox events", purged);
+        }
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> batch = outboxEventRepository.lockUnsentBatch(batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<Deque<OutboxEvent>> queues = new ArrayList<>();
+        Map<String, Deque<OutboxEvent>> queuesByKey = new HashMap<>();
+        for (OutboxEvent outboxEvent : batch) {
+            Deque<OutboxEvent> queue = outboxEvent.getMessageKey() != null
+                    ? queuesByKey.computeIfAbsent(outboxEvent.getMessageKey(), k -> new ArrayDeque<>())
+                    : new ArrayDeque<>();
+            if (queue.isEmpty()) {
+                queues.add(queue);
+            }
+            queue.add(outboxEvent);
+        }
+
+        long deadline = System.nanoTime() + sendTimeout.toNanos();
+        List<Long> sentIds = new ArrayList<>(batch.size());
+        List<Long> failedIds = new ArrayList<>();
+        boolean interrupted = false;
+        while (!queues.isEmpty() && !interrupted) {
+            List<Deque<OutboxEvent>> owners = new ArrayList<>(queues.size());
+            List<OutboxEvent> heads = new ArrayList<>(queues.size());
+            List<CompletableFuture<?>> sends = new ArrayList<>(queues.size());
+            for (Deque<OutboxEvent> queue : queues) {
+                OutboxEvent next;
+                while ((next = queue.poll()) != null) {
+                    EventMessage message = readPayload(next);
+                    if (message != null) {
+                        owners.add(queue);
+                        heads.add(next);
+                        sends.add(eventProducerService.publish(next.getMessageKey(), message));
+                        break;
+                    }
+                    failedIds.add(next.getId());
+                }
+            }
+
+            for (int i = 0; i < sends.size(); i++) {
+                OutboxEvent outboxEvent = heads.get(i);
+                try {
+                    sends.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    sentIds.add(outboxEvent.getId());
+                }
+                catch (ExecutionException | TimeoutException e) {
+                    log.warn("Outbox event {} was not published, will retry", outboxEvent.getEventId());
+                    owners.get(i).clear();
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    interrupted = true;
+                    break;
+                }
+            }
+            queues.removeIf(Deque::isEmpty);
+        }
+
+        Instant now = Instant.now();
+        if (!sentIds.isEmpty()) {
+            outboxEventRepository.markSent(sentIds, now);
+        }
+        if (!failedIds.isEmpty()) {
+            outboxEventRepository.markFailed(failedIds, now);
+            failedCounter.increment(failedIds.size());
+        }
+        return sentIds.size() + failedIds.size();
+    }
+
+    private EventMessage readPayload(OutboxEvent outboxEvent) {
+        try {
+            return objectMapper.readValue(outboxEvent.getPayload(), EventMessage.class);
+        }
+        catch (JsonProcessingException e) {
+            log.error("Outbox event {} has an unreadable payload, marking it as failed", outboxEvent.getEventId(), e);
+            return null;
+        }
+    }
+}
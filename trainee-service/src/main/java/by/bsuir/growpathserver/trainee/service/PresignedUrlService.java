@@ -0,0 +1,266 @@
+package by.bsuir.growpathserver.trainee.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+import by.bsuir.growpathserver.trainee.entity.StoredFile;
+import by.bsuir.growpathserver.trainee.entity.StoredFileStatus;
+import by.bsuir.growpathserver.trainee.model.PresignedDownload;
+import by.bsuir.growpathserver.trainee.model.PresignedUpload;
+import by.bsuir.growpathserver.trainee.model.StoredObject;
+import by.bsuir.growpathserver.trainee.repository.StoredFileRepository;
+import io.minio.GetPresignedObjectUrlArgs;
+import io.minio.MinioClient;
+import io.minio.PostPolicy;
+import io.minio.http.Method;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Lets clients move file bytes directly to and from the storage bucket. Uploads get a
+ * presigned POST policy bound to a unique staging key, content type and maximum size, and
+ * are recorded as pending until the client reports completion. A verified upload is then
+ * promoted to the file's key, so an existing file is only replaced by an upload that
+ * matched its policy, and stays listed and downloadable while the replacement is pending. Pending uploads the client never completed are reconciled against
+ * the bucket in the background. Downloads get a
+ * short-lived presigned GET URL.
+ */
+@Slf4j
+@Service
+public class PresignedUrlService {
+
+    private final MinioClient presigningMinioClient;
+    private final FileStorageService fileStorageService;
+    private final FileMetadataService fileMetadataService;
+    private final StoredFileRepository storedFileRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final String bucketName;
+    private final String publicEndpoint;
+    private final Duration uploadExpiry;
+    private final Duration downloadExpiry;
+    private final Duration pendingGrace;
+    private final long maxSize;
+    private final List<MediaType> allowedContentTypes;
+    private final int reconcileBatchSize;
+
+    public PresignedUrlService(
+            @Qualifier("presigningMinioClient") MinioClient presigningMinioClient,
+            FileStorageService fileStorageService,
+            FileMetadataService fileMetadataService,
+            StoredFileRepository storedFileRepository,
+            TransactionTemplate transactionTemplate,
+            @Value("${minio.bucket-name}") String bucketName,
+            @Value("${minio.public-endpoint:${minio.endpoint}}") String publicEndpoint,
+            @Value("${storage.presigned.upload-expiry:15m}") Duration uploadExpiry,
+            @Value("${storage.presigned.download-expiry:5m}") Duration downloadExpiry,
+            @Value("${storage.presigned.pending-grace:1h}") Duration pendingGrace,
+            @Value("${storage.upload.max-size:5GB}") DataSize maxSize,
+            @Value("${storage.presigned.allowed-content-types:*/*}") List<String> allowedContentTypes,
+            @Value("${storage.presigned.reconcile-batch-size:100}") int reconcileBatchSize) {
+        this.presigningMinioClient = presigningMinioClient;
+        this.fileStorageService = fileStorageService;
+        this.fileMetadataService = fileMetadataService;
+        this.storedFileRepository = storedFileRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.bucketName = bucketName;
+        this.publicEndpoint = publicEndpoint.endsWith("/") ? publicEndpoint : publicEndpoint + "/";
+        this.uploadExpiry = uploadExpiry;
+        this.downloadExpiry = downloadExpiry;
+        this.pendingGrace = pendingGrace;
+        this.maxSize = maxSize.toBytes();
+        this.allowedContentTypes = MediaType.parseMediaTypes(allowedContentTypes);
+        this.reconcileBatchSize = reconcileBatchSize;
+    }
+
+    @Transactional
+    public PresignedUpload createUpload(String ownerId, String fileName, String contentType, long size) {
+        if (size <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "File size must be positive");
+        }
+        if (size > maxSize) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "File is too large");
+        }
+        if (!isAllowed(contentType)) {
+            throw new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE, "Content type is not allowed");
+        }
+        String objectName = fileStorageService.getObjectName(ownerId, fileName);
+        String stagingObjectName = fileStorageService.newStagingObjectName();
+        fileStorageService.ensureBucket();
+
+        Instant now = Instant.now();
+        Instant expiresAt = now.plus(uploadExpiry);
+        PostPolicy policy = new PostPolicy(bucketName, ZonedDateTime.ofInstant(expiresAt, ZoneOffset.UTC));
+        policy.addEqualsCondition("key", stagingObjectName);
+        policy.addEqualsCondition("Content-Type", contentType);
+        policy.addContentLengthRangeCondition(1, size);
+
+        Map<String, String> formData;
+        try {
+            formData = new HashMap<>(presigningMinioClient.getPresignedPostFormData(policy));
+        }
+        catch (Exception e) {
+            throw new IllegalStateException("Failed to presign upload of " + objectName, e);
+        }
+        formData.put("key", stagingObjectName);
+        formData.put("Content-Type", contentType);
+
+        StoredFile file = storedFileRepository.findByObjectName(objectName).orElseGet(StoredFile::new);
+        if (file.getId() == null) {
+            file.setOwnerId(ownerId);
+            file.setFileName(fileName);
+            file.setObjectName(objectName);
+            file.setCreatedAt(now);
+            file.setStatus(StoredFileStatus.PENDING);
+        }
+        if (file.getStatus() == StoredFileStatus.PENDING) {
+            file.setContentType(contentType);
+        }
+        file.setPendingContentType(contentType);
+        file.setMaxSize(size);
+        file.setExpiresAt(expiresAt);
+        file.setStagingObjectName(stagingObjectName);
+        storedFileRepository.save(file);
+
+        return new PresignedUpload(objectName, publicEndpoint + bucketName, formData, expiresAt);
+    }
+
+    @Transactional(noRollbackFor = ResponseStatusException.class)
+    public StoredObject completeUpload(String ownerId, String fileName) {
+        String objectName = fileStorageService.getObjectName(ownerId, fileName);
+        StoredFile file = storedFileRepository.findByObjectName(objectName)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Upload not found"));
+        if (file.getExpiresAt() != null && !markUploaded(file, statUploaded(file))) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                                              "Uploaded file does not match the requested upload");
+        }
+        return new StoredObject(objectName, fileName, file.getContentType(), file.getSize(), file.getEtag());
+    }
+
+    public PresignedDownload createDownload(String ownerId, String fileName) {
+        fileMetadataService.get(ownerId, fileName);
+        String objectName = fileStorageService.getObjectName(ownerId, fileName);
+        Instant expiresAt = Instant.now().plus(downloadExpiry);
+        String contentDisposition = ContentDisposition.attachment()
+                .filename(fileName, StandardCharsets.UTF_8)
+                .build()
+                .toString();
+        try {
+            String url = presigningMinioClient.getPresignedObjectUrl(GetPresignedObjectUrlArgs.builder()
+                    .method(Method.GET)
+                    .bucket(bucketName)
+                    .object(objectName)
+                    .expiry((int) downloadExpiry.toSeconds())
+                    .extraQueryParams(Map.of("response-content-disposition", contentDisposition))
+                    .build());
+            return new PresignedDownload(url, expiresAt);
+        }
+        catch (Exception e) {
+            throw new IllegalStateException("Failed to presign download of " + objectName, e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${storage.presigned.reconcile-interval:5m}")
+    public void reconcilePendingUploads() {
+        List<StoredFile> expired = storedFileRepository.findByExpiresAtBefore(Instant.now().minus(pendingGrace),
+                                                                              Limit.of(reconcileBatchSize));
+        for (StoredFile file : expired) {
+            try {
+                StoredObject object = statUploaded(file);
+                transactionTemplate.executeWithoutResult(status -> markUploaded(file, object));
+            }
+            catch (ResponseStatusException e) {
+                if (e.getStatusCode() == HttpStatus.NOT_FOUND) {
+                    log.info("Dropping abandoned upload {}", file.getObjectName());
+                    transactionTemplate.executeWithoutResult(status -> discardPending(file));
+                }
+            }
+            catch (RuntimeException e) {
+                log.warn("Failed to reconcile upload {}", file.getObjectName(), e);
+            }
+        }
+    }
+
+    /**
+     * Stats the object the pending upload was written to. Rows created before uploads were
+     * staged point at the final key directly.
+     */
+    private StoredObject statUploaded(StoredFile file) {
+        String uploadedName = file.getStagingObjectName() != null ? file.getStagingObjectName() :
+                file.getObjectName();
+        return fileStorageService.stat(uploadedName, file.getFileName());
+    }
+
+    /**
+     * Promotes a verified upload to the file's key. An upload that does not match its policy
+     * is removed from staging only, so the file it was meant to replace stays intact.
+     */
+    private boolean markUploaded(StoredFile file, StoredObject uploaded) {
+        boolean staged = !uploaded.objectName().equals(file.getObjectName());
+        String contentType = file.getPendingContentType() != null ? file.getPendingContentType() :
+                file.getContentType();
+        if (uploaded.size() > file.getMaxSize() || !contentType.equals(uploaded.contentType())) {
+            log.warn("Discarding upload {} that does not match its policy", file.getObjectName());
+            if (staged) {
+                fileStorageService.deleteObject(uploaded.objectName());
+            }
+            discardPending(file);
+            return false;
+        }
+
+        StoredObject object = staged ? fileStorageService.promote(uploaded, file.getObjectName()) : uploaded;
+        file.setContentType(contentType);
+        file.setSize(object.size());
+        file.setEtag(object.etag());
+        file.setStatus(StoredFileStatus.UPLOADED);
+        file.setUploadedAt(Instant.now());
+        file.setExpiresAt(null);
+        file.setStagingObjectName(null);
+        file.setPendingContentType(null);
+        fileMetadataService.markUploaded(file);
+        return true;
+    }
+
+    /**
+     * Ends a pending upload that will not be promoted. A file already stored under the key
+     * stays as it is; a row that only stood for the upload is deleted.
+     */
+    private void discardPending(StoredFile file) {
+        if (file.getStatus() != StoredFileStatus.UPLOADED) {
+            storedFileRepository.delete(file);
+            return;
+        }
+        file.setExpiresAt(null);
+        file.setStagingObjectName(null);
+        file.setPendingContentType(null);
+        storedFileRepository.save(file);
+    }
+
+    private boolean isAllowed(String contentType) {
+        try {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            return allowedContentTypes.stream().anyMatch(allowed -> allowed.includes(mediaType));
+        }
+        catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package by.bsuir.growpathserver.trainee.service;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Remembers keys that were written within the tolerated replica lag. Reads of such keys
+ * run in a read-write transaction and therefore on the primary, so a value loaded into a
+ * cache right after a write is never older than the write itself.
+ */
+@Component
+public class RecentWriteTracker {
+
+    private final Cache<String, Boolean> recentWrites;
+    private final TransactionTemplate primaryTransactionTemplate;
+
+    public RecentWriteTracker(
+            PlatformTransactionManager transactionManager,
+            @Value("${trainee.datasource.replica.max-lag:5s}") Duration maxLag,
+            @Value("${trainee.datasource.replica.lag-check-interval:5s}") Duration lagCheckInterval,
+            @Value("${trainee.datasource.replica.recent-writes-size:100000}") long maximumSize) {
+        this.recentWrites = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(maxLag.plus(lagCheckInterval))
+                .build();
+        this.primaryTransactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public void recordWrite(String key) {
+        recentWrites.put(key, Boolean.TRUE);
+    }
+
+    public <T> T read(String key, Supplier<T> reader) {
+        if (recentWrites.getIfPresent(key) == null) {
+            return reader.get();
+        }
+        return primaryTransactionTemplate.execute(status -> reader.get());
+    }
+}
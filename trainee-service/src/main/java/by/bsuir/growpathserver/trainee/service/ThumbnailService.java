@@ -0,0 +1,179 @@
+package by.bsuir.growpathserver.trainee.service;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Renders JPEG thumbnails of stored images and the first page of PDFs and writes them as
+ * separate objects keyed by the source's name and ETag. Rendering runs on a small bounded worker pool; work
+ * that does not fit into the queue is rejected and picked up again by the metadata backfill.
+ * Images are decoded with subsampling and PDFs are spooled to a temporary file, so the
+ * source is never fully loaded into heap.
+ */
+@Service
+public class ThumbnailService implements DisposableBean {
+
+    private static final String THUMBNAILS_PREFIX = "thumbnails/";
+    private static final String THUMBNAIL_SUFFIX = ".jpg";
+
+    private final FileStorageService fileStorageService;
+    private final ThreadPoolExecutor executor;
+    private final int maxDimension;
+    private final long maxSourceSize;
+
+    public ThumbnailService(
+            FileStorageService fileStorageService,
+            @Value("${storage.thumbnails.workers:2}") int workers,
+            @Value("${storage.thumbnails.queue-capacity:1000}") int queueCapacity,
+            @Value("${storage.thumbnails.max-dimension:256}") int maxDimension,
+            @Value("${storage.thumbnails.max-source-size:100MB}") DataSize maxSourceSize) {
+        this.fileStorageService = fileStorageService;
+        this.executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                                               new ArrayBlockingQueue<>(queueCapacity));
+        this.maxDimension = maxDimension;
+        this.maxSourceSize = maxSourceSize.toBytes();
+    }
+
+    public static String getThumbnailPrefix(String objectName) {
+        return THUMBNAILS_PREFIX + objectName + "/";
+    }
+
+    /**
+     * Thumbnails are keyed by the ETag of their source, so a render of a replaced version
+     * can never overwrite the thumbnail of the current one.
+     */
+    public static String getThumbnailObjectName(String objectName, String etag) {
+        return getThumbnailPrefix(objectName) + etag.replace("\"", "") + THUMBNAIL_SUFFIX;
+    }
+
+    public boolean supports(String contentType, long size) {
+        if (contentType == null || size > maxSourceSize) {
+            return false;
+        }
+        return MediaType.APPLICATION_PDF_VALUE.equals(contentType)
+                || ImageIO.getImageReadersByMIMEType(contentType).hasNext();
+    }
+
+    public CompletableFuture<Void> generate(String objectName, String etag, String contentType) {
+        try {
+            return CompletableFuture.runAsync(() -> {
+                try {
+                    BufferedImage source = MediaType.APPLICATION_PDF_VALUE.equals(contentType)
+                            ? renderPdf(objectName) : readImage(objectName);
+                    fileStorageService.write(getThumbnailObjectName(objectName, etag), toJpeg(source),
+                                             MediaType.IMAGE_JPEG_VALUE);
+                }
+                catch (IOException e) {
+                    throw new IllegalStateException("Failed to render thumbnail of " + objectName, e);
+                }
+            }, executor);
+        }
+        catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private BufferedImage readImage(String objectName) throws IOException {
+        try (InputStream input = fileStorageService.open(objectName);
+             ImageInputStream imageInput = ImageIO.createImageInputStream(input)) {
+            if (imageInput == null) {
+                throw new IOException("Image input is not available");
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(imageInput);
+            if (!readers.hasNext()) {
+                throw new IOException("Unsupported image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(imageInput, true, true);
+                int longestSide = Math.max(reader.getWidth(0), reader.getHeight(0));
+                int step = Math.max(1, longestSide / (maxDimension * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            }
+            finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private BufferedImage renderPdf(String objectName) throws IOException {
+        Path file = Files.createTempFile("thumbnail-", ".pdf");
+        try {
+            try (InputStream input = fileStorageService.open(objectName)) {
+                Files.copy(input, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            try (PDDocument document = Loader.loadPDF(file.toFile())) {
+                if (document.getNumberOfPages() == 0) {
+                    throw new IOException("Document has no pages");
+                }
+                PDRectangle page = document.getPage(0).getCropBox();
+                float scale = maxDimension / Math.max(page.getWidth(), page.getHeight());
+                return new PDFRenderer(document).renderImage(0, scale, ImageType.RGB);
+            }
+        }
+        finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private byte[] toJpeg(BufferedImage source) throws IOException {
+        double ratio = Math.min(1.0, (double) maxDimension / Math.max(source.getWidth(), source.getHeight()));
+        int width = Math.max(1, (int) Math.round(source.getWidth() * ratio));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * ratio));
+
+        BufferedImage thumbnail = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = thumbnail.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        }
+        finally {
+            graphics.dispose();
+        }
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        if (!ImageIO.write(thumbnail, "jpg", output)) {
+            throw new IOException("No JPEG writer available");
+        }
+        return output.toByteArray();
+    }
+}
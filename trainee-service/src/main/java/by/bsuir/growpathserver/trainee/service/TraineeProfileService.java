@@ -0,0 +1,103 @@
+package by.bsuir.growpathserver.trainee.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import by.bsuir.growpathserver.common.event.TraineeProfileUpdatedPayload;
+import by.bsuir.growpathserver.trainee.entity.TraineeProfile;
+import by.bsuir.growpathserver.trainee.model.TraineeProfileUpdateRequest;
+import by.bsuir.growpathserver.trainee.model.TraineeProfileView;
+import by.bsuir.growpathserver.trainee.repository.TraineeProfileRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Trainee profiles with an in-process read cache. Misses are cached as well, so repeated
+ * reads of a profile never reach the database until it changes. Every update publishes a
+ * {@code TRAINEE_PROFILE_UPDATED} event through the outbox, and each instance evicts its
+ * copy when it sees the event; the TTL bounds staleness if an event is ever missed.
+ */
+@Service
+public class TraineeProfileService {
+
+    private final TraineeProfileRepository traineeProfileRepository;
+    private final EventProducerService eventProducerService;
+    private final RecentWriteTracker recentWriteTracker;
+    private final Cache<String, Optional<TraineeProfileView>> profiles;
+
+    public TraineeProfileService(
+            TraineeProfileRepository traineeProfileRepository,
+            EventProducerService eventProducerService,
+            RecentWriteTracker recentWriteTracker,
+            MeterRegistry meterRegistry,
+            @Value("${trainee.profile.cache.maximum-size:50000}") long maximumSize,
+            @Value("${trainee.profile.cache.ttl:10m}") Duration ttl) {
+        this.traineeProfileRepository = traineeProfileRepository;
+        this.eventProducerService = eventProducerService;
+        this.recentWriteTracker = recentWriteTracker;
+        this.profiles = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, profiles, "trainee.profiles");
+    }
+
+    public Optional<TraineeProfileView> getProfile(String userId) {
+        return profiles.get(userId, key -> recentWriteTracker.read(getWriteKey(key), () -> traineeProfileRepository
+                .findById(key)
+                .map(TraineeProfileService::toView)));
+    }
+
+    @Transactional
+    public TraineeProfileView updateProfile(String userId, TraineeProfileUpdateRequest request) {
+        TraineeProfile profile = traineeProfileRepository.findById(userId).orElseGet(() -> {
+            TraineeProfile created = new TraineeProfile();
+            created.setUserId(userId);
+            return created;
+        });
+        profile.setMentorId(request.mentorId());
+        profile.setTrack(request.track());
+        profile.setProgress(request.progress());
+        profile.setUpdatedAt(Instant.now());
+        TraineeProfile saved = traineeProfileRepository.saveAndFlush(profile);
+
+        eventProducerService.sendEvent(new TraineeProfileUpdatedPayload(userId, saved.getVersion()), userId);
+        recentWriteTracker.recordWrite(getWriteKey(userId));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                profiles.invalidate(userId);
+            }
+        });
+        return toView(saved);
+    }
+
+    /**
+     * Drops the cached profile unless it is already at least as new as {@code version}.
+     */
+    public void evict(String userId, Long version) {
+        recentWriteTracker.recordWrite(getWriteKey(userId));
+        profiles.asMap().computeIfPresent(userId, (key, cached) ->
+                version != null && cached.isPresent() && cached.get().version() >= version ? cached : null);
+    }
+
+    private static String getWriteKey(String userId) {
+        return "profile:" + userId;
+    }
+
+    private static TraineeProfileView toView(TraineeProfile profile) {
+        return new TraineeProfileView(profile.getUserId(), profile.getMentorId(), profile.getTrack(),
+                                      profile.getProgress(), profile.getUpdatedAt(), profile.getVersion());
+    }
+}